@@ -0,0 +1,41 @@
+package org.javawebstack.openapi.client;
+
+import org.javawebstack.openapi.client.output.MemoryOutputSink;
+import org.javawebstack.openapi.parser.OpenAPI;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenerateBenchmark {
+
+    @Param({"10", "1000", "20000"})
+    int schemas;
+
+    @Param({"2"})
+    int depth;
+
+    @Param({"0.05"})
+    double tagRatio;
+
+    JavaClientGenerator generator;
+
+    @Setup
+    public void setup() {
+        OpenAPI api = SyntheticSpec.create(schemas, depth, Math.max(1, (int) (schemas * tagRatio)));
+        generator = new JavaClientGenerator(api);
+    }
+
+    @Benchmark
+    public MemoryOutputSink generate() {
+        MemoryOutputSink sink = new MemoryOutputSink();
+        generator.generate(sink);
+        return sink;
+    }
+
+}
@@ -0,0 +1,121 @@
+package org.javawebstack.openapi.client;
+
+import com.google.gson.stream.JsonReader;
+import org.javawebstack.openapi.client.output.JarOutputSink;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class MemoryBenchmark {
+
+    @Param({"10000"})
+    int objects;
+
+    @Param({"64"})
+    int values;
+
+    @Param({"false", "true"})
+    boolean primitives;
+
+    File jar;
+    URLClassLoader classLoader;
+    MethodHandle read;
+    byte[] payload;
+    long retainedBytes;
+
+    @Setup
+    public void setup() throws Throwable {
+        JavaClientGenerator generator = new JavaClientGenerator(SyntheticSpec.create(1, 0, 1));
+        generator.setCodecs(true);
+        generator.setPrimitives(primitives);
+        jar = File.createTempFile("memory-client", ".jar");
+        JarOutputSink sink = new JarOutputSink(jar, System.getProperty("java.class.path"));
+        generator.setJustSource(true);
+        generator.generate(sink);
+        sink.close();
+        classLoader = new URLClassLoader(new URL[]{ jar.toURI().toURL() }, getClass().getClassLoader());
+        Class<?> schemaClass = classLoader.loadClass("com.example.schemas.Schema0");
+        read = MethodHandles.publicLookup().findStatic(schemaClass, "read", MethodType.methodType(schemaClass, JsonReader.class));
+        payload = payload(objects, values).getBytes(StandardCharsets.UTF_8);
+        long before = usedHeap();
+        Object[] decoded = decode();
+        retainedBytes = usedHeap() - before;
+        if(decoded.length != objects)
+            throw new IllegalStateException("Decoded "+decoded.length+" of "+objects+" objects");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        classLoader.close();
+        jar.delete();
+    }
+
+    @Benchmark
+    public Object[] decode(Footprint footprint) throws Throwable {
+        footprint.retainedBytes = retainedBytes;
+        return decode();
+    }
+
+    private Object[] decode() throws Throwable {
+        Object[] decoded = new Object[objects];
+        try (JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(payload), StandardCharsets.UTF_8))) {
+            reader.beginArray();
+            for(int i = 0; reader.hasNext(); i++)
+                decoded[i] = read.invoke(reader);
+            reader.endArray();
+        }
+        return decoded;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for(int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String payload(int objects, int values) {
+        StringBuilder sb = new StringBuilder("[");
+        for(int i = 0; i < objects; i++){
+            if(i > 0)
+                sb.append(',');
+            sb.append("{\"id\":").append(i * 1000003L)
+                    .append(",\"display_name\":\"Object ").append(i)
+                    .append("\",\"score\":").append(i * 0.25)
+                    .append(",\"active\":").append(i % 2 == 0)
+                    .append(",\"values\":[");
+            for(int j = 0; j < values; j++){
+                if(j > 0)
+                    sb.append(',');
+                sb.append(1000 + i * values + j);
+            }
+            sb.append("]}");
+        }
+        return sb.append(']').toString();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public long retainedBytes;
+
+    }
+
+}
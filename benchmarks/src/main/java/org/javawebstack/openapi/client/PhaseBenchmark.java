@@ -0,0 +1,86 @@
+package org.javawebstack.openapi.client;
+
+import org.javawebstack.openapi.client.output.MemoryOutputSink;
+import org.javawebstack.openapi.parser.OpenAPI;
+import org.javawebstack.openapi.parser.OpenAPIResponse;
+import org.javawebstack.openapi.parser.OpenAPISchema;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhaseBenchmark {
+
+    @Param({"1000"})
+    int schemas;
+
+    @Param({"1", "4"})
+    int depth;
+
+    @Param({"50"})
+    int tags;
+
+    JavaClientGenerator generator;
+    OpenAPI api;
+    Map<String, List<JavaClientGenerator.TagOperation>> operations;
+
+    @Setup
+    public void setup() {
+        api = SyntheticSpec.create(schemas, depth, tags);
+        generator = new JavaClientGenerator(api);
+        operations = generator.indexOperations();
+    }
+
+    @Benchmark
+    public Map<String, List<JavaClientGenerator.TagOperation>> indexOperations() {
+        return generator.indexOperations();
+    }
+
+    @Benchmark
+    public MemoryOutputSink schemas() {
+        MemoryOutputSink sink = new MemoryOutputSink();
+        for(Map.Entry<String, OpenAPISchema> entry : api.getComponents().getSchemas().entrySet())
+            generator.generateSchema(sink, entry.getKey(), entry.getValue());
+        return sink;
+    }
+
+    @Benchmark
+    public MemoryOutputSink responses() {
+        MemoryOutputSink sink = new MemoryOutputSink();
+        for(Map.Entry<String, OpenAPIResponse> entry : api.getComponents().getResponses().entrySet())
+            generator.generateResponse(sink, entry.getKey(), entry.getValue());
+        return sink;
+    }
+
+    @Benchmark
+    public MemoryOutputSink tags() {
+        MemoryOutputSink sink = new MemoryOutputSink();
+        api.getTags().forEach(t -> generator.generateTag(sink, t.getName(), operations.getOrDefault(t.getName(), Collections.emptyList())));
+        return sink;
+    }
+
+    @Benchmark
+    public MemoryOutputSink client() {
+        MemoryOutputSink sink = new MemoryOutputSink();
+        generator.generateClient(sink);
+        return sink;
+    }
+
+    @Benchmark
+    public void serializedNames(Blackhole blackhole) {
+        blackhole.consume(generator.getSerializedName("display_name", "String"));
+        blackhole.consume(generator.getSerializedName("created-at", "String"));
+        blackhole.consume(generator.getSerializedName("class", "String"));
+        blackhole.consume(generator.getSerializedName("id", "Long"));
+    }
+
+}
@@ -0,0 +1,57 @@
+package org.javawebstack.openapi.client;
+
+import org.javawebstack.openapi.client.output.JarOutputSink;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(3)
+public class StartupBenchmark {
+
+    @Param({"250"})
+    int tags;
+
+    @Param({"false", "true"})
+    boolean lazyTags;
+
+    File jar;
+
+    @Setup
+    public void setup() throws IOException {
+        JavaClientGenerator generator = new JavaClientGenerator(SyntheticSpec.create(tags * 4, 1, tags));
+        generator.setLazyTags(lazyTags);
+        jar = File.createTempFile("startup-client", ".jar");
+        JarOutputSink sink = new JarOutputSink(jar, System.getProperty("java.class.path"));
+        generator.setJustSource(true);
+        generator.generate(sink);
+        sink.close();
+    }
+
+    @TearDown
+    public void tearDown() {
+        jar.delete();
+    }
+
+    @Benchmark
+    public Object createClientAndCallOneTag() throws Throwable {
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{ jar.toURI().toURL() }, getClass().getClassLoader())) {
+            Class<?> clientClass = classLoader.loadClass("com.example.SyntheticAPIClient");
+            Object client = clientClass.getConstructor().newInstance();
+            // Class.getMethod would resolve the return types of all public methods and load every tag class
+            Class<?> tagClass = classLoader.loadClass("com.example.tags.Tag0Tag");
+            return MethodHandles.publicLookup().findVirtual(clientClass, "tag0", MethodType.methodType(tagClass)).invoke(client);
+        }
+    }
+
+}
@@ -0,0 +1,253 @@
+package org.javawebstack.openapi.client;
+
+import org.javawebstack.openapi.client.output.OutputSink;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+public class GeneratorProfile {
+
+    private static final int SLOWEST_LIMIT = 10;
+
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+    private final List<Task> tasks = new ArrayList<>();
+    private final LongAdder files = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder ioNanos = new LongAdder();
+    private final long start = System.nanoTime();
+    private long end;
+    private long peakHeap;
+
+    public GeneratorProfile() {
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()){
+            if(pool.getType() == MemoryType.HEAP)
+                pool.resetPeakUsage();
+        }
+    }
+
+    public <T, E extends Exception> T measure(String phase, Measured<T, E> action) throws E {
+        long cpuStart = cpuTime();
+        long taskStart = System.nanoTime();
+        try {
+            return action.run();
+        } finally {
+            record(phase, phase, taskStart, System.nanoTime(), cpuTime() - cpuStart);
+        }
+    }
+
+    public Runnable task(String phase, String name, Runnable task) {
+        return () -> {
+            long cpuStart = cpuTime();
+            long taskStart = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                record(phase, name, taskStart, System.nanoTime(), cpuTime() - cpuStart);
+            }
+        };
+    }
+
+    public OutputSink wrap(OutputSink sink) {
+        return new CountingOutputSink(sink);
+    }
+
+    public void finish() {
+        end = System.nanoTime();
+        peakHeap = 0;
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()){
+            if(pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null)
+                peakHeap += pool.getPeakUsage().getUsed();
+        }
+    }
+
+    public String toSummary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-12s %12s %12s %8s%n", "Phase", "Wall", "CPU", "Tasks"));
+        synchronized (this) {
+            phases.forEach((name, phase) -> sb.append(String.format("%-12s %12s %12s %8d%n", name, millis(phase.end - phase.start), millis(phase.cpu), phase.count)));
+        }
+        sb.append(String.format("%-12s %12s%n", "total", millis(end - start)));
+        sb
+                .append("Files: ").append(files.sum())
+                .append(", Bytes: ").append(bytes.sum())
+                .append(", Write time: ").append(millis(ioNanos.sum()))
+                .append(", Peak heap: ").append(peakHeap / (1024 * 1024)).append(" MB\n");
+        for(String phase : Arrays.asList("schemas", "responses", "tags")){
+            List<Task> slowest = getSlowest(phase);
+            if(slowest.isEmpty())
+                continue;
+            sb.append("Slowest ").append(phase).append(": ").append(slowest.stream().map(t -> t.name + " (" + millis(t.end - t.start) + ")").collect(Collectors.joining(", "))).append("\n");
+        }
+        return sb.toString();
+    }
+
+    public String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb
+                .append("{\n  \"wallNanos\": ").append(end - start)
+                .append(",\n  \"files\": ").append(files.sum())
+                .append(",\n  \"bytes\": ").append(bytes.sum())
+                .append(",\n  \"writeNanos\": ").append(ioNanos.sum())
+                .append(",\n  \"peakHeapBytes\": ").append(peakHeap)
+                .append(",\n  \"phases\": {");
+        synchronized (this) {
+            sb.append(phases.entrySet().stream().map(e -> "\n    " + quote(e.getKey()) + ": {\"wallNanos\": " + (e.getValue().end - e.getValue().start) + ", \"cpuNanos\": " + e.getValue().cpu + ", \"tasks\": " + e.getValue().count + "}").collect(Collectors.joining(",")));
+        }
+        sb.append("\n  },\n  \"slowest\": {");
+        sb.append(Arrays.asList("schemas", "responses", "tags").stream().map(phase -> "\n    " + quote(phase) + ": [" + getSlowest(phase).stream().map(t -> "{\"name\": " + quote(t.name) + ", \"wallNanos\": " + (t.end - t.start) + ", \"cpuNanos\": " + t.cpu + "}").collect(Collectors.joining(", ")) + "]").collect(Collectors.joining(",")));
+        sb.append("\n  }\n}\n");
+        return sb.toString();
+    }
+
+    private synchronized void record(String phase, String name, long taskStart, long taskEnd, long cpu) {
+        Phase p = phases.computeIfAbsent(phase, k -> new Phase(taskStart));
+        p.start = Math.min(p.start, taskStart);
+        p.end = Math.max(p.end, taskEnd);
+        p.cpu += cpu;
+        p.count++;
+        tasks.add(new Task(phase, name, taskStart, taskEnd, cpu));
+    }
+
+    private synchronized List<Task> getSlowest(String phase) {
+        return tasks.stream().filter(t -> t.phase.equals(phase)).sorted(Comparator.comparingLong((Task t) -> t.end - t.start).reversed()).limit(SLOWEST_LIMIT).collect(Collectors.toList());
+    }
+
+    private long cpuTime() {
+        return threadBean.isCurrentThreadCpuTimeSupported() ? threadBean.getCurrentThreadCpuTime() : 0;
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ENGLISH, "%.1fms", nanos / 1000000.0);
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for(char c : value.toCharArray()){
+            if(c == '"' || c == '\\'){
+                sb.append('\\').append(c);
+            }else if(c < 0x20){
+                sb.append(String.format("\\u%04x", (int) c));
+            }else{
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static long utf8Length(char c) {
+        if(c < 0x80)
+            return 1;
+        if(c < 0x800 || Character.isSurrogate(c))
+            return 2;
+        return 3;
+    }
+
+    public interface Measured<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    private static class Phase {
+
+        private long start;
+        private long end;
+        private long cpu;
+        private int count;
+
+        Phase(long start) {
+            this.start = start;
+            this.end = start;
+        }
+
+    }
+
+    private static class Task {
+
+        private final String phase;
+        private final String name;
+        private final long start;
+        private final long end;
+        private final long cpu;
+
+        Task(String phase, String name, long start, long end, long cpu) {
+            this.phase = phase;
+            this.name = name;
+            this.start = start;
+            this.end = end;
+            this.cpu = cpu;
+        }
+
+    }
+
+    private class CountingOutputSink implements OutputSink {
+
+        private final OutputSink sink;
+
+        CountingOutputSink(OutputSink sink) {
+            this.sink = sink;
+        }
+
+        public Writer open(String path) throws IOException {
+            files.increment();
+            long openStart = System.nanoTime();
+            Writer writer = sink.open(path);
+            ioNanos.add(System.nanoTime() - openStart);
+            return new FilterWriter(writer) {
+                public void write(int c) throws IOException {
+                    long writeStart = System.nanoTime();
+                    super.write(c);
+                    ioNanos.add(System.nanoTime() - writeStart);
+                    bytes.add(utf8Length((char) c));
+                }
+                public void write(char[] buffer, int offset, int length) throws IOException {
+                    long writeStart = System.nanoTime();
+                    super.write(buffer, offset, length);
+                    ioNanos.add(System.nanoTime() - writeStart);
+                    long size = 0;
+                    for(int i = offset; i < offset + length; i++)
+                        size += utf8Length(buffer[i]);
+                    bytes.add(size);
+                }
+                public void write(String value, int offset, int length) throws IOException {
+                    long writeStart = System.nanoTime();
+                    super.write(value, offset, length);
+                    ioNanos.add(System.nanoTime() - writeStart);
+                    long size = 0;
+                    for(int i = offset; i < offset + length; i++)
+                        size += utf8Length(value.charAt(i));
+                    bytes.add(size);
+                }
+                public void close() throws IOException {
+                    long closeStart = System.nanoTime();
+                    super.close();
+                    ioNanos.add(System.nanoTime() - closeStart);
+                }
+            };
+        }
+
+        public void write(String path, String content) throws IOException {
+            files.increment();
+            long writeStart = System.nanoTime();
+            sink.write(path, content);
+            ioNanos.add(System.nanoTime() - writeStart);
+            long size = 0;
+            for(int i = 0; i < content.length(); i++)
+                size += utf8Length(content.charAt(i));
+            bytes.add(size);
+        }
+
+        public void close() throws IOException {
+            sink.close();
+        }
+
+    }
+
+}
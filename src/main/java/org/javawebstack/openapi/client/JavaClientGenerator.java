@@ -2,19 +2,28 @@ package org.javawebstack.openapi.client;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.javawebstack.openapi.client.output.DirectoryOutputSink;
+import org.javawebstack.openapi.client.output.OutputSink;
+import org.javawebstack.openapi.client.output.SourceWriter;
 import org.javawebstack.openapi.parser.*;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Getter @Setter
 public class JavaClientGenerator {
 
+    private static final Pattern PATH_VARIABLE = Pattern.compile("\\{([^}]+)}");
     private static final List<String> reservedKeywords = new ArrayList<String>(){{
         add("interface");
         add("private");
@@ -32,6 +41,22 @@ public class JavaClientGenerator {
         add("void");
         add("default");
     }};
+    private static final List<String> pageParameterTypes = Arrays.asList("Integer", "Long", "String");
+    private static final List<String> reservedParameterNames = new ArrayList<String>(){{
+        add("client");
+        add("request");
+        add("body");
+        add("target");
+        add("separator");
+        add("url");
+        add("probe");
+        add("requestBytes");
+        add("firstPage");
+        add("offset");
+        add("exception");
+        add("attempt");
+        add("retry");
+    }};
 
     OpenAPI api;
     String basePackage = "com.example";
@@ -41,6 +66,22 @@ public class JavaClientGenerator {
     String artifactId;
     String version;
     List<String> snippet = new ArrayList<>();
+    int threads = 1;
+    boolean async = false;
+    boolean codecs = false;
+    boolean streaming = false;
+    boolean pagination = false;
+    boolean cache = false;
+    boolean singleFlight = false;
+    boolean metrics = false;
+    boolean dedupeSchemas = false;
+    boolean lazyTags = false;
+    boolean primitives = false;
+    boolean resilience = false;
+    boolean transport = false;
+    boolean compression = false;
+    GeneratorProfile profile;
+    List<String> pageParameters = new ArrayList<>(Collections.singletonList("page"));
 
     public JavaClientGenerator(OpenAPI api){
         this.api = api;
@@ -57,23 +98,218 @@ public class JavaClientGenerator {
             version = "1.0";
     }
 
-    private void writeClassFile(File targetFolder, String className, String content){
-        File sourceFolder = justSource ? targetFolder : new File(targetFolder, "src/main/java");
-        File file = new File(sourceFolder, className.replace(".", "/")+".java");
-        writeFile(file, content);
+    private void writeClassFile(OutputSink sink, String className, String content){
+        writeFile(sink, getClassFilePath(className), content);
+    }
+
+    private SourceWriter openClassFile(OutputSink sink, String className){
+        try {
+            return new SourceWriter(sink.open(getClassFilePath(className)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeTemplate(OutputSink sink, String className, String template){
+        Map<String, Object> context = new HashMap<>();
+        context.put("package", basePackage);
+        context.put("api", apiName);
+        context.put("transport", transport);
+        context.put("primitives", primitives);
+        writeClassFile(sink, basePackage+"."+className, Template.render(template, context));
+    }
+
+    private String getClassFilePath(String className){
+        String sourceFolder = justSource ? "" : "src/main/java/";
+        return sourceFolder+className.replace(".", "/")+".java";
     }
 
     public void generate(File targetFolder){
+        try (DirectoryOutputSink sink = new DirectoryOutputSink(targetFolder)) {
+            generate(sink);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void generate(OutputSink target){
+        OutputSink sink = profile != null ? profile.wrap(target) : target;
+        List<Runnable> tasks = new ArrayList<>();
         if(!justSource)
-            generatePomFile(targetFolder);
-        generateClient(targetFolder);
-        generateException(targetFolder);
-        api.getComponents().getSchemas().forEach((name, schema) -> generateSchema(targetFolder, name, schema));
-        api.getComponents().getResponses().forEach((name, response) -> generateResponse(targetFolder, name, response));
-        api.getTags().forEach(t -> generateTag(targetFolder, t.getName()));
+            tasks.add(task("support", "pom.xml", () -> generatePomFile(sink)));
+        tasks.add(task("support", "Client", () -> generateClient(sink)));
+        tasks.add(task("support", "Exception", () -> generateException(sink)));
+        if(hasCodecs())
+            tasks.add(task("support", "Codec", () -> generateCodec(sink)));
+        if(streaming)
+            tasks.add(task("support", "Cursor", () -> generateCursor(sink)));
+        if(pagination)
+            tasks.add(task("support", "Pager", () -> generatePager(sink)));
+        tasks.add(task("support", "Url", () -> generateUrl(sink)));
+        if(cache)
+            tasks.add(task("support", "Cache", () -> generateCache(sink)));
+        if(metrics){
+            tasks.add(task("support", "Listener", () -> generateListener(sink)));
+            tasks.add(task("support", "Metrics", () -> generateMetrics(sink)));
+        }
+        if(resilience)
+            tasks.add(task("support", "Policy", () -> generatePolicy(sink)));
+        if(transport){
+            tasks.add(task("support", "HTTPClient", () -> generateTransportClient(sink)));
+            tasks.add(task("support", "HTTPRequest", () -> generateTransportRequest(sink)));
+            tasks.add(task("support", "Transport", () -> generateTransport(sink)));
+            tasks.add(task("support", "HttpTransport", () -> generateHttpTransport(sink)));
+        }
+        if(compression)
+            tasks.add(task("support", "Compression", () -> generateCompression(sink)));
+        Map<OpenAPISchema, String> sharedSchemas = dedupeSchemas ? (profile != null ? profile.measure("index", this::indexSharedSchemas) : indexSharedSchemas()) : Collections.emptyMap();
+        Map<String, OpenAPISchema> sharedClasses = new HashMap<>();
+        sharedSchemas.forEach((schema, name) -> sharedClasses.putIfAbsent(name, schema));
+        sharedClasses.forEach((name, schema) -> tasks.add(task("schemas", name, () -> generateSchema(sink, name, schema, sharedSchemas))));
+        api.getComponents().getSchemas().forEach((name, schema) -> tasks.add(task("schemas", name, () -> generateSchema(sink, name, schema, sharedSchemas))));
+        api.getComponents().getResponses().forEach((name, response) -> tasks.add(task("responses", name, () -> generateResponse(sink, name, response, sharedSchemas))));
+        Map<String, List<TagOperation>> operations = profile != null ? profile.measure("index", this::indexOperations) : indexOperations();
+        api.getTags().forEach(t -> tasks.add(task("tags", t.getName(), () -> generateTag(sink, t.getName(), operations.getOrDefault(t.getName(), Collections.emptyList())))));
+        runTasks(tasks);
     }
 
-    private void generatePomFile(File targetFolder){
+    private boolean hasCodecs(){
+        return codecs || streaming || pagination || primitives || compression;
+    }
+
+    private Runnable task(String phase, String name, Runnable task){
+        return profile != null ? profile.task(phase, name, task) : task;
+    }
+
+    private void runTasks(List<Runnable> tasks){
+        if(threads <= 1){
+            tasks.forEach(Runnable::run);
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = tasks.stream().map(executor::submit).collect(Collectors.toList());
+            for(Future<?> future : futures)
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    Map<OpenAPISchema, String> indexSharedSchemas(){
+        Map<OpenAPISchema, String> fingerprints = new IdentityHashMap<>();
+        Map<String, List<OpenAPISchema>> shapes = new LinkedHashMap<>();
+        Map<String, Map<String, Integer>> shapeNames = new HashMap<>();
+        Set<String> reservedNames = new HashSet<>();
+        if(api.getComponents().getSchemas() != null){
+            api.getComponents().getSchemas().forEach((name, schema) -> {
+                reservedNames.add(name);
+                collectInlineSchemas(schema, fingerprints, shapes, shapeNames);
+            });
+        }
+        if(api.getComponents().getResponses() != null){
+            api.getComponents().getResponses().forEach((name, response) -> {
+                reservedNames.add(name);
+                OpenAPISchema schema = getResponseSchema(response);
+                if(schema != null)
+                    collectInlineSchemas(schema, fingerprints, shapes, shapeNames);
+            });
+        }
+        Map<OpenAPISchema, String> sharedSchemas = new IdentityHashMap<>();
+        shapes.forEach((fingerprint, occurrences) -> {
+            if(occurrences.size() < 2)
+                return;
+            String baseName = shapeNames.get(fingerprint).entrySet().stream().max(Map.Entry.comparingByValue()).map(Map.Entry::getKey).orElse("Shape");
+            String name = baseName;
+            int i = 1;
+            while (reservedNames.contains(name)){
+                i++;
+                name = baseName + i;
+            }
+            reservedNames.add(name);
+            for(OpenAPISchema schema : occurrences)
+                sharedSchemas.put(schema, name);
+        });
+        return sharedSchemas;
+    }
+
+    private void collectInlineSchemas(OpenAPISchema schema, Map<OpenAPISchema, String> fingerprints, Map<String, List<OpenAPISchema>> shapes, Map<String, Map<String, Integer>> shapeNames){
+        if(schema.getProperties() == null)
+            return;
+        schema.getProperties().forEach((pName, pSchema) -> {
+            String type = getJavaType(pSchema);
+            if(type != null && !type.startsWith("null"))
+                return;
+            OpenAPISchema subSchema = pSchema.getType() == OpenAPIDataType.ARRAY ? pSchema.getItems() : pSchema;
+            String fingerprint = getFingerprint(subSchema, fingerprints);
+            shapes.computeIfAbsent(fingerprint, f -> new ArrayList<>()).add(subSchema);
+            shapeNames.computeIfAbsent(fingerprint, f -> new LinkedHashMap<>()).merge(getSubSchemaName(pName), 1, Integer::sum);
+            collectInlineSchemas(subSchema, fingerprints, shapes, shapeNames);
+        });
+    }
+
+    private String getFingerprint(OpenAPISchema schema, Map<OpenAPISchema, String> fingerprints){
+        if(schema == null)
+            return "";
+        String fingerprint = fingerprints.get(schema);
+        if(fingerprint != null)
+            return fingerprint;
+        StringBuilder sb = new StringBuilder();
+        if(schema.getReference() != null){
+            sb.append('#').append(schema.getReference());
+        }else{
+            sb.append(schema.getType()).append(':').append(schema.getFormat());
+            if(schema.getItems() != null)
+                sb.append('[').append(getFingerprint(schema.getItems(), fingerprints)).append(']');
+            if(schema.getProperties() != null){
+                sb.append('{');
+                new TreeMap<>(schema.getProperties()).forEach((pName, pSchema) -> sb.append(pName).append('=').append(getFingerprint(pSchema, fingerprints)).append(';'));
+                sb.append('}');
+            }
+        }
+        try {
+            fingerprint = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        fingerprints.put(schema, fingerprint);
+        return fingerprint;
+    }
+
+    Map<String, List<TagOperation>> indexOperations(){
+        Map<String, List<TagOperation>> operations = new HashMap<>();
+        api.getPaths().forEach((path, pathObject) -> {
+            pathObject.getMethods().forEach((method, operation) -> {
+                if(operation.getTags() == null || operation.getTags().isEmpty())
+                    return;
+                List<OpenAPIParameter> parameters = new ArrayList<>();
+                if(pathObject.getParameters() != null)
+                    parameters.addAll(pathObject.getParameters());
+                if(operation.getParameters() != null)
+                    parameters.addAll(operation.getParameters());
+                OpenAPIResponse response = operation
+                        .getResponses()
+                        .entrySet()
+                        .stream()
+                        .filter(e -> e.getKey().startsWith("2"))
+                        .map(Map.Entry::getValue)
+                        .findFirst()
+                        .orElse(null);
+                TagOperation tagOperation = new TagOperation(path, method, operation, parameters, response);
+                operation.getTags().stream().distinct().forEach(tag -> operations.computeIfAbsent(tag, t -> new ArrayList<>()).add(tagOperation));
+            });
+        });
+        return operations;
+    }
+
+    private void generatePomFile(OutputSink sink){
         String pom = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
                 "<project xmlns=\"http://maven.apache.org/POM/4.0.0\"\n" +
                 "         xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n" +
@@ -93,9 +329,14 @@ public class JavaClientGenerator {
                 "\n" +
                 "    <dependencies>\n" +
                 "        <dependency>\n" +
+                (transport ?
+                "            <groupId>com.google.code.gson</groupId>\n" +
+                "            <artifactId>gson</artifactId>\n" +
+                "            <version>2.10.1</version>\n"
+                :
                 "            <groupId>org.javawebstack</groupId>\n" +
                 "            <artifactId>HTTP-Client</artifactId>\n" +
-                "            <version>1.0-SNAPSHOT</version>\n" +
+                "            <version>1.0-SNAPSHOT</version>\n") +
                 "        </dependency>\n" +
                 "    </dependencies>\n" +
                 "\n" +
@@ -105,50 +346,110 @@ public class JavaClientGenerator {
                 "                <groupId>org.apache.maven.plugins</groupId>\n" +
                 "                <artifactId>maven-compiler-plugin</artifactId>\n" +
                 "                <configuration>\n" +
-                "                    <source>8</source>\n" +
-                "                    <target>8</target>\n" +
+                "                    <source>" + (transport ? 11 : 8) + "</source>\n" +
+                "                    <target>" + (transport ? 11 : 8) + "</target>\n" +
                 "                </configuration>\n" +
                 "            </plugin>\n" +
                 "        </plugins>\n" +
                 "    </build>\n" +
                 "\n" +
                 "</project>";
-        writeFile(new File(targetFolder, "pom.xml"), pom);
+        writeFile(sink, "pom.xml", pom);
     }
 
-    private void generateClient(File targetFolder){
-        StringBuilder sb = new StringBuilder();
+    void generateClient(OutputSink sink){
+        try (SourceWriter sb = openClassFile(sink, basePackage+"."+apiName+"Client")) {
+            generateClient(sb);
+        }
+    }
+
+    private void generateClient(SourceWriter sb){
         sb
                 .append("package ")
                 .append(basePackage)
-                .append(";\n\n")
-                .append("import org.javawebstack.httpclient.*;\n")
-                .append("import org.javawebstack.graph.*;\n")
+                .append(";\n\n");
+        if(!transport){
+            sb
+                    .append("import org.javawebstack.httpclient.*;\n")
+                    .append("import org.javawebstack.graph.*;\n");
+        }
+        sb
                 .append("import ")
                 .append(basePackage)
-                .append(".tags.*;\n\n")
+                .append(".tags.*;\n\n");
+        if(hasCodecs())
+            sb.append("import java.io.IOException;\n");
+        if(streaming && !compression)
+            sb.append("import java.io.ByteArrayInputStream;\n");
+        if(compression)
+            sb.append("import java.util.Objects;\n");
+        if(async || pagination || singleFlight || resilience)
+            sb.append("import java.util.concurrent.*;\n");
+        if(resilience){
+            sb
+                    .append("import java.util.concurrent.atomic.AtomicInteger;\n")
+                    .append("import java.util.function.BiConsumer;\n");
+        }
+        if(hasCodecs() || streaming || async || pagination || singleFlight || resilience)
+            sb.append("\n");
+        sb
                 .append("public class ")
                 .append(apiName)
                 .append("Client extends HTTPClient {\n\n");
         api.getTags().forEach(t -> sb
-                .append("    private final ")
+                .append(lazyTags ? "    private volatile " : "    private final ")
                 .append(capitalize(t.getName()))
                 .append("Tag ")
                 .append(t.getName())
                 .append(";\n")
         );
+        if(lazyTags)
+            sb.append("    private final Object tagLock = new Object();\n");
+        if(async || pagination)
+            sb.append("    private Executor executor;\n");
+        if(pagination)
+            sb.append("    private int prefetch = 1;\n");
+        if(cache)
+            sb.append("    private ").append(apiName).append("Cache cache = new ").append(apiName).append("Cache(1000);\n");
+        if(singleFlight)
+            sb.append("    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();\n");
+        if(metrics)
+            sb.append("    private volatile ").append(apiName).append("Listener listener;\n");
+        if(resilience){
+            sb
+                    .append("    private volatile ").append(apiName).append("Policy policy;\n")
+                    .append("    private final ConcurrentHashMap<String, ").append(apiName).append("Policy> policies = new ConcurrentHashMap<>();\n");
+        }
+        if(compression)
+            sb.append("    private volatile ").append(apiName).append("Compression compression = new ").append(apiName).append("Compression();\n");
         sb
                 .append("\n    public ")
                 .append(apiName)
                 .append("Client() {\n");
-        sb.append("        this.graphMapper(new GraphMapper().setNamingPolicy(NamingPolicy.NONE));\n");
-        api.getTags().forEach(t -> sb
-                .append("        this.")
-                .append(t.getName())
-                .append(" = new ")
-                .append(capitalize(t.getName()))
-                .append("Tag(this);\n")
-        );
+        if(transport){
+            sb
+                    .append("        this(new ")
+                    .append(apiName)
+                    .append("HttpTransport());\n")
+                    .append("    }\n\n")
+                    .append("    public ")
+                    .append(apiName)
+                    .append("Client(")
+                    .append(apiName)
+                    .append("Transport transport) {\n")
+                    .append("        super(transport);\n");
+        }else{
+            sb.append("        this.graphMapper(new GraphMapper().setNamingPolicy(NamingPolicy.NONE));\n");
+        }
+        if(!lazyTags){
+            api.getTags().forEach(t -> sb
+                    .append("        this.")
+                    .append(t.getName())
+                    .append(" = new ")
+                    .append(capitalize(t.getName()))
+                    .append("Tag(this);\n")
+            );
+        }
         sb
                 .append("    }\n\n");
         if(snippet != null && snippet.size() > 0){
@@ -164,7 +465,7 @@ public class JavaClientGenerator {
                 .append(apiName)
                 .append("Exception(request);\n")
                 .append("        if(type == null)\n")
-                .append("            return null;")
+                .append("            return null;\n")
                 .append("        try {\n")
                 .append("            return request.object(type);\n")
                 .append("        } catch (Throwable throwable) {\n")
@@ -173,24 +474,658 @@ public class JavaClientGenerator {
                 .append("Exception(request, throwable);\n")
                 .append("        }\n")
                 .append("    }\n\n");
-        api.getTags().forEach(t -> sb
-                .append("    public ")
-                .append(capitalize(t.getName()))
-                .append("Tag ")
-                .append(t.getName())
-                .append("() {\n        return ")
-                .append(t.getName())
-                .append(";\n    }\n\n")
-        );
+        if(hasCodecs())
+            generateCodecSupport(sb);
+        if(streaming)
+            generateStreamingSupport(sb);
+        if(async || pagination)
+            generateAsyncSupport(sb);
+        if(pagination)
+            generatePaginationSupport(sb);
+        if(cache)
+            generateCacheSupport(sb);
+        if(singleFlight)
+            generateSingleFlightSupport(sb);
+        if(metrics)
+            generateMetricsSupport(sb);
+        if(resilience)
+            generateResilienceSupport(sb);
+        if(compression)
+            generateCompressionSupport(sb);
+        if(lazyTags){
+            api.getTags().forEach(t -> sb
+                    .append("    public ")
+                    .append(capitalize(t.getName()))
+                    .append("Tag ")
+                    .append(t.getName())
+                    .append("() {\n")
+                    .append("        ")
+                    .append(capitalize(t.getName()))
+                    .append("Tag tag = ")
+                    .append(t.getName())
+                    .append(";\n")
+                    .append("        if(tag == null) {\n")
+                    .append("            synchronized (tagLock) {\n")
+                    .append("                tag = ")
+                    .append(t.getName())
+                    .append(";\n")
+                    .append("                if(tag == null)\n")
+                    .append("                    ")
+                    .append(t.getName())
+                    .append(" = tag = new ")
+                    .append(capitalize(t.getName()))
+                    .append("Tag(this);\n")
+                    .append("            }\n")
+                    .append("        }\n")
+                    .append("        return tag;\n")
+                    .append("    }\n\n")
+            );
+        }else{
+            api.getTags().forEach(t -> sb
+                    .append("    public ")
+                    .append(capitalize(t.getName()))
+                    .append("Tag ")
+                    .append(t.getName())
+                    .append("() {\n        return ")
+                    .append(t.getName())
+                    .append(";\n    }\n\n")
+            );
+        }
         sb.append("}");
-        writeClassFile(targetFolder, basePackage+"."+apiName+"Client", sb.toString());
     }
 
-    private void generateException(File targetFolder){
-        writeClassFile(targetFolder, basePackage+"."+apiName+"Exception", "package " +
+    private void generateCodecSupport(SourceWriter sb){
+        sb
+                .append("    public void orError(HTTPRequest request) throws ")
+                .append(apiName)
+                .append("Exception {\n")
+                .append("        if(request.status() < 200 || request.status() > 299)\n")
+                .append("            throw new ")
+                .append(apiName)
+                .append("Exception(request);\n")
+                .append("    }\n\n")
+                .append("    public <T> T orError(HTTPRequest request, ")
+                .append(apiName)
+                .append("Codec.Reader<T> reader) throws ")
+                .append(apiName)
+                .append("Exception {\n")
+                .append("        orError(request);\n")
+                .append("        try {\n")
+                .append("            return ")
+                .append(apiName)
+                .append(compression ? "Codec.decode(compression.open(request), reader);\n" : "Codec.decode(request.bytes(), reader);\n")
+                .append("        } catch (Throwable throwable) {\n")
+                .append("            throw new ")
+                .append(apiName)
+                .append("Exception(request, throwable);\n")
+                .append("        }\n")
+                .append("    }\n\n")
+                .append("    public <T> ");
+        if(compression){
+            sb
+                    .append(apiName)
+                    .append("Compression.Body jsonBody(String operationId, HTTPRequest request, T body, ")
+                    .append(apiName)
+                    .append("Codec.Writer<T> writer) throws ")
+                    .append(apiName)
+                    .append("Exception {\n")
+                    .append("        try {\n")
+                    .append("            ")
+                    .append(apiName)
+                    .append("Compression.Body encoded = compression.compress(operationId, \"application/json\", ")
+                    .append(apiName)
+                    .append("Codec.encode(body, writer));\n")
+                    .append("            encoded.applyTo(request);\n")
+                    .append("            return encoded;\n");
+        }else{
+            sb
+                    .append(metrics ? "int" : "void")
+                    .append(" jsonBody(HTTPRequest request, T body, ")
+                    .append(apiName)
+                    .append("Codec.Writer<T> writer) throws ")
+                    .append(apiName)
+                    .append("Exception {\n")
+                    .append("        try {\n")
+                    .append("            byte[] bytes = ")
+                    .append(apiName)
+                    .append("Codec.encode(body, writer);\n")
+                    .append("            request.header(\"Content-Type\", \"application/json\");\n")
+                    .append("            request.body(bytes);\n")
+                    .append(metrics ? "            return bytes.length;\n" : "");
+        }
+        sb
+                .append("        } catch (IOException exception) {\n")
+                .append("            throw new ")
+                .append(apiName)
+                .append("Exception(request, exception);\n")
+                .append("        }\n")
+                .append("    }\n\n");
+    }
+
+    private void generateStreamingSupport(SourceWriter sb){
+        sb
+                .append("    public <T> ")
+                .append(apiName)
+                .append("Cursor<T> cursor(HTTPRequest request, ")
+                .append(apiName)
+                .append("Codec.Reader<T> reader) throws ")
+                .append(apiName)
+                .append("Exception {\n")
+                .append("        orError(request);\n")
+                .append("        try {\n")
+                .append("            return new ")
+                .append(apiName)
+                .append(compression ? "Cursor<>(compression.open(request), reader);\n" : transport ? "Cursor<>(request.stream(), reader);\n" : "Cursor<>(new ByteArrayInputStream(request.bytes()), reader);\n")
+                .append("        } catch (Throwable throwable) {\n")
+                .append("            throw new ")
+                .append(apiName)
+                .append("Exception(request, throwable);\n")
+                .append("        }\n")
+                .append("    }\n\n");
+    }
+
+    private void generateCursor(OutputSink sink){
+        writeTemplate(sink, apiName + "Cursor", "Cursor");
+    }
+
+    private void generateMetricsSupport(SourceWriter sb){
+        sb
+                .append("    public ")
+                .append(apiName)
+                .append("Client setListener(")
+                .append(apiName)
+                .append("Listener listener) {\n")
+                .append("        this.listener = listener;\n")
+                .append("        return this;\n")
+                .append("    }\n\n")
+                .append("    public ")
+                .append(apiName)
+                .append("Listener getListener() {\n")
+                .append("        return listener;\n")
+                .append("    }\n\n")
+                .append("    public Probe probe(String operationId, String method, String path) {\n")
+                .append("        ")
+                .append(apiName)
+                .append("Listener listener = this.listener;\n")
+                .append("        if(listener == null)\n")
+                .append("            return null;\n")
+                .append("        return new Probe(listener, operationId, method, path);\n")
+                .append("    }\n\n")
+                .append("    public HTTPRequest execute(Probe probe, HTTPRequest request, long requestBytes")
+                .append(resilience ? ", Attempt attempt) throws " + apiName + "Exception {\n" : ") {\n")
+                .append("        if(probe == null)\n")
+                .append(resilience ? "            return send(request, attempt);\n" : "            return request.execute();\n")
+                .append("        probe.requestBytes = requestBytes;\n")
+                .append("        probe.sent = System.nanoTime();\n")
+                .append(resilience ? "        request = send(request, attempt);\n" : "        request.execute();\n")
+                .append("        probe.received = System.nanoTime();\n")
+                .append("        probe.status = request.status();\n")
+                .append(transport ? "        probe.responseBytes = Math.max(0, request.contentLength());\n" : "        byte[] body = request.bytes();\n        probe.responseBytes = body != null ? body.length : 0;\n")
+                .append("        return request;\n")
+                .append("    }\n\n")
+                .append("    public <T> T complete(Probe probe, T value) {\n")
+                .append("        if(probe != null)\n")
+                .append("            probe.finish(null);\n")
+                .append("        return value;\n")
+                .append("    }\n\n")
+                .append("    public <E extends Throwable> E fail(Probe probe, E exception) {\n")
+                .append("        if(probe != null)\n")
+                .append("            probe.finish(exception);\n")
+                .append("        return exception;\n")
+                .append("    }\n\n")
+                .append("    public static final class Probe {\n\n")
+                .append("        private final ")
+                .append(apiName)
+                .append("Listener listener;\n")
+                .append("        private final String operationId;\n")
+                .append("        private final String method;\n")
+                .append("        private final String path;\n")
+                .append("        private final long start = System.nanoTime();\n")
+                .append("        private long sent;\n")
+                .append("        private long received;\n")
+                .append("        private int status;\n")
+                .append("        private long requestBytes;\n")
+                .append("        private long responseBytes;\n\n")
+                .append("        private Probe(")
+                .append(apiName)
+                .append("Listener listener, String operationId, String method, String path) {\n")
+                .append("            this.listener = listener;\n")
+                .append("            this.operationId = operationId;\n")
+                .append("            this.method = method;\n")
+                .append("            this.path = path;\n")
+                .append("        }\n\n")
+                .append("        private void finish(Throwable error) {\n")
+                .append("            long end = System.nanoTime();\n")
+                .append("            if(received == 0) {\n")
+                .append("                listener.onOperation(operationId, method, path, status, requestBytes, responseBytes, 0, 0, end - start, error);\n")
+                .append("                return;\n")
+                .append("            }\n")
+                .append("            listener.onOperation(operationId, method, path, status, requestBytes, responseBytes, sent - start, received - sent, end - received, error);\n")
+                .append("        }\n\n")
+                .append("    }\n\n");
+    }
+
+    private void generateUrl(OutputSink sink){
+        writeTemplate(sink, apiName + "Url", "Url");
+    }
+
+    private void generateListener(OutputSink sink){
+        writeTemplate(sink, apiName + "Listener", "Listener");
+    }
+
+    private void generateMetrics(OutputSink sink){
+        writeTemplate(sink, apiName + "Metrics", "Metrics");
+    }
+
+    private void generateSingleFlightSupport(SourceWriter sb){
+        sb
+                .append("    public interface Call<T> {\n")
+                .append("        T call() throws ")
+                .append(apiName)
+                .append("Exception;\n")
+                .append("    }\n\n")
+                .append("    @SuppressWarnings(\"unchecked\")\n")
+                .append("    public <T> T coalesce(String key, Call<T> call) throws ")
+                .append(apiName)
+                .append("Exception {\n")
+                .append("        CompletableFuture<Object> future = new CompletableFuture<>();\n")
+                .append("        CompletableFuture<Object> pending = inFlight.putIfAbsent(key, future);\n")
+                .append("        if(pending != null) {\n")
+                .append("            try {\n")
+                .append("                return (T) pending.join();\n")
+                .append("            } catch (CompletionException exception) {\n")
+                .append("                if(exception.getCause() instanceof ")
+                .append(apiName)
+                .append("Exception)\n")
+                .append("                    throw (")
+                .append(apiName)
+                .append("Exception) exception.getCause();\n")
+                .append("                if(exception.getCause() instanceof RuntimeException)\n")
+                .append("                    throw (RuntimeException) exception.getCause();\n")
+                .append("                throw new ")
+                .append(apiName)
+                .append("Exception(null, exception.getCause());\n")
+                .append("            }\n")
+                .append("        }\n")
+                .append("        try {\n")
+                .append("            T value = call.call();\n")
+                .append("            future.complete(value);\n")
+                .append("            return value;\n")
+                .append("        } catch (Throwable throwable) {\n")
+                .append("            future.completeExceptionally(throwable);\n")
+                .append("            throw throwable;\n")
+                .append("        } finally {\n")
+                .append("            inFlight.remove(key, future);\n")
+                .append("        }\n")
+                .append("    }\n\n");
+    }
+
+    private void generateResilienceSupport(SourceWriter sb){
+        String policy = apiName + "Policy";
+        String exception = apiName + "Exception";
+        sb
+                .append("    public interface RequestFactory {\n")
+                .append("        HTTPRequest create() throws ")
+                .append(exception)
+                .append(";\n")
+                .append("    }\n\n")
+                .append("    public static final class Attempt {\n\n")
+                .append("        private final String operationId;\n")
+                .append("        private final ")
+                .append(policy)
+                .append(" policy;\n")
+                .append("        private final RequestFactory factory;\n\n")
+                .append("        private Attempt(String operationId, ")
+                .append(policy)
+                .append(" policy, RequestFactory factory) {\n")
+                .append("            this.operationId = operationId;\n")
+                .append("            this.policy = policy;\n")
+                .append("            this.factory = factory;\n")
+                .append("        }\n\n")
+                .append("    }\n\n")
+                .append("    public ")
+                .append(apiName)
+                .append("Client setPolicy(")
+                .append(policy)
+                .append(" policy) {\n")
+                .append("        this.policy = policy;\n")
+                .append("        return this;\n")
+                .append("    }\n\n")
+                .append("    public ")
+                .append(apiName)
+                .append("Client setPolicy(String operationId, ")
+                .append(policy)
+                .append(" policy) {\n")
+                .append("        if(policy == null) {\n")
+                .append("            policies.remove(operationId);\n")
+                .append("        } else {\n")
+                .append("            policies.put(operationId, policy);\n")
+                .append("        }\n")
+                .append("        return this;\n")
+                .append("    }\n\n")
+                .append("    public ")
+                .append(policy)
+                .append(" getPolicy() {\n")
+                .append("        return policy;\n")
+                .append("    }\n\n")
+                .append("    public ")
+                .append(policy)
+                .append(" getPolicy(String operationId) {\n")
+                .append("        return policies.get(operationId);\n")
+                .append("    }\n\n")
+                .append("    public Attempt attempt(String operationId, String method, RequestFactory factory) {\n")
+                .append("        ")
+                .append(policy)
+                .append(" policy = policies.isEmpty() ? null : policies.get(operationId);\n")
+                .append("        if(policy == null && isIdempotent(method))\n")
+                .append("            policy = this.policy;\n")
+                .append("        return policy == null ? null : new Attempt(operationId, policy, factory);\n")
+                .append("    }\n\n")
+                .append("    public HTTPRequest send(HTTPRequest request, Attempt attempt) throws ")
+                .append(exception)
+                .append(" {\n")
+                .append("        if(attempt == null)\n")
+                .append("            return request.execute();\n")
+                .append("        ")
+                .append(policy)
+                .append(" policy = attempt.policy;\n")
+                .append("        policy.deposit();\n")
+                .append("        for(int attempts = 1; ; attempts++) {\n")
+                .append("            HTTPRequest response = null;\n")
+                .append("            RuntimeException failure = null;\n")
+                .append("            try {\n")
+                .append("                response = policy.isHedged() ? hedge(request, attempt) : timed(request, attempt);\n")
+                .append("            } catch (RuntimeException exception) {\n")
+                .append("                failure = exception;\n")
+                .append("            }\n")
+                .append("            if(failure == null && !policy.isRetryable(response.status()))\n")
+                .append("                return response;\n")
+                .append("            if(attempts >= policy.getMaxAttempts() || !policy.acquireRetry()) {\n")
+                .append("                if(failure != null)\n")
+                .append("                    throw failure;\n")
+                .append("                return response;\n")
+                .append("            }\n")
+                .append("            try {\n")
+                .append("                Thread.sleep(policy.getBackoff(attempts));\n")
+                .append("            } catch (InterruptedException exception) {\n")
+                .append("                Thread.currentThread().interrupt();\n")
+                .append("                throw new ")
+                .append(exception)
+                .append("(response, exception);\n")
+                .append("            }\n")
+                .append("            request = attempt.factory.create();\n")
+                .append("        }\n")
+                .append("    }\n\n")
+                .append("    private HTTPRequest hedge(HTTPRequest request, Attempt attempt) throws ")
+                .append(exception)
+                .append(" {\n")
+                .append("        ")
+                .append(policy)
+                .append(" policy = attempt.policy;\n")
+                .append("        CompletableFuture<HTTPRequest> first = CompletableFuture.supplyAsync(() -> timed(request, attempt), policy.getExecutor());\n")
+                .append("        try {\n")
+                .append("            try {\n")
+                .append("                return first.get(policy.getHedgeDelay(attempt.operationId), TimeUnit.NANOSECONDS);\n")
+                .append("            } catch (TimeoutException exception) {\n")
+                .append("                if(!policy.acquireHedge())\n")
+                .append("                    return first.get();\n")
+                .append("            }\n")
+                .append("            HTTPRequest second = attempt.factory.create();\n")
+                .append("            CompletableFuture<HTTPRequest> hedged = CompletableFuture.supplyAsync(() -> timed(second, attempt), policy.getExecutor());\n")
+                .append("            CompletableFuture<HTTPRequest> winner = new CompletableFuture<>();\n")
+                .append("            AtomicInteger failures = new AtomicInteger();\n")
+                .append("            BiConsumer<HTTPRequest, Throwable> complete = (response, error) -> {\n")
+                .append("                if(error == null) {\n")
+                .append(transport ? "                    if(!winner.complete(response))\n                        response.close();\n" : "                    winner.complete(response);\n")
+                .append("                } else if(failures.incrementAndGet() == 2) {\n")
+                .append("                    winner.completeExceptionally(error);\n")
+                .append("                }\n")
+                .append("            };\n")
+                .append("            first.whenComplete(complete);\n")
+                .append("            hedged.whenComplete(complete);\n")
+                .append("            return winner.get();\n")
+                .append("        } catch (InterruptedException exception) {\n")
+                .append("            Thread.currentThread().interrupt();\n")
+                .append("            throw new ")
+                .append(exception)
+                .append("(null, exception);\n")
+                .append("        } catch (ExecutionException exception) {\n")
+                .append("            if(exception.getCause() instanceof RuntimeException)\n")
+                .append("                throw (RuntimeException) exception.getCause();\n")
+                .append("            throw new ")
+                .append(exception)
+                .append("(null, exception.getCause());\n")
+                .append("        }\n")
+                .append("    }\n\n")
+                .append("    private HTTPRequest timed(HTTPRequest request, Attempt attempt) {\n")
+                .append("        long start = System.nanoTime();\n")
+                .append("        request.execute();\n")
+                .append("        attempt.policy.record(attempt.operationId, System.nanoTime() - start);\n")
+                .append("        return request;\n")
+                .append("    }\n\n")
+                .append("    private static boolean isIdempotent(String method) {\n")
+                .append("        switch (method) {\n")
+                .append("            case \"GET\":\n")
+                .append("            case \"HEAD\":\n")
+                .append("            case \"OPTIONS\":\n")
+                .append("            case \"PUT\":\n")
+                .append("            case \"DELETE\":\n")
+                .append("                return true;\n")
+                .append("            default:\n")
+                .append("                return false;\n")
+                .append("        }\n")
+                .append("    }\n\n");
+    }
+
+    private void generateCacheSupport(SourceWriter sb){
+        sb
+                .append("    public ")
+                .append(apiName)
+                .append("Client setCache(")
+                .append(apiName)
+                .append("Cache cache) {\n")
+                .append("        this.cache = cache;\n")
+                .append("        return this;\n")
+                .append("    }\n\n")
+                .append("    public ")
+                .append(apiName)
+                .append("Cache getCache() {\n")
+                .append("        return cache;\n")
+                .append("    }\n\n");
+        if(hasCodecs()){
+            sb
+                    .append("    public <T> T cached(")
+                    .append(metrics ? "Probe probe, " : "")
+                    .append(resilience ? "HTTPRequest request, Attempt attempt, String key, " : "HTTPRequest request, String key, ")
+                    .append(apiName)
+                    .append("Codec.Reader<T> reader) throws ")
+                    .append(apiName)
+                    .append("Exception {\n")
+                    .append("        return fetchCached(")
+                    .append(metrics ? "probe, " : "")
+                    .append(resilience ? "request, attempt, " : "request, ")
+                    .append("key, response -> orError(response, reader));\n")
+                    .append("    }\n\n");
+        }else{
+            sb
+                    .append("    public <T> T cached(")
+                    .append(metrics ? "Probe probe, " : "")
+                    .append(resilience ? "HTTPRequest request, Attempt attempt, String key, Class<T> type) throws " : "HTTPRequest request, String key, Class<T> type) throws ")
+                    .append(apiName)
+                    .append("Exception {\n")
+                    .append("        return fetchCached(")
+                    .append(metrics ? "probe, " : "")
+                    .append(resilience ? "request, attempt, " : "request, ")
+                    .append("key, response -> orError(response, type));\n")
+                    .append("    }\n\n");
+        }
+        sb
+                .append("    private interface ResponseDecoder<T> {\n")
+                .append("        T decode(HTTPRequest request) throws ")
+                .append(apiName)
+                .append("Exception;\n")
+                .append("    }\n\n")
+                .append("    @SuppressWarnings(\"unchecked\")\n")
+                .append("    private <T> T fetchCached(")
+                .append(metrics ? "Probe probe, " : "")
+                .append(resilience ? "HTTPRequest request, Attempt attempt, String key, ResponseDecoder<T> decoder) throws " : "HTTPRequest request, String key, ResponseDecoder<T> decoder) throws ")
+                .append(apiName)
+                .append("Exception {\n")
+                .append("        ")
+                .append(apiName)
+                .append("Cache cache = this.cache;\n")
+                .append("        if(cache == null)\n")
+                .append("            return decoder.decode(")
+                .append(getExecute("", "0"))
+                .append(");\n")
+                .append("        ")
+                .append(apiName)
+                .append("Cache.Entry entry = cache.get(key);\n")
+                .append("        if(entry != null && entry.isFresh()) {\n")
+                .append("            cache.hit();\n")
+                .append("            return (T) entry.getValue();\n")
+                .append("        }\n")
+                .append("        if(entry != null && entry.getETag() != null)\n")
+                .append("            request.header(\"If-None-Match\", entry.getETag());\n")
+                .append("        ")
+                .append(resilience ? "request = " : "")
+                .append(getExecute("", "0"))
+                .append(";\n")
+                .append("        if(entry != null && request.status() == 304) {\n")
+                .append("            cache.revalidated(key, entry, request.header(\"Cache-Control\"));\n")
+                .append("            return (T) entry.getValue();\n")
+                .append("        }\n")
+                .append("        cache.miss();\n")
+                .append("        T value = decoder.decode(request);\n")
+                .append("        cache.put(key, request.header(\"ETag\"), request.header(\"Cache-Control\"), value);\n")
+                .append("        return value;\n")
+                .append("    }\n\n");
+    }
+
+    private void generateCache(OutputSink sink){
+        writeTemplate(sink, apiName + "Cache", "Cache");
+    }
+
+    private void generatePolicy(OutputSink sink){
+        writeTemplate(sink, apiName + "Policy", "Policy");
+    }
+
+    private void generateTransportClient(OutputSink sink){
+        writeTemplate(sink, "HTTPClient", "HTTPClient");
+    }
+
+    private void generateTransportRequest(OutputSink sink){
+        writeTemplate(sink, "HTTPRequest", "HTTPRequest");
+    }
+
+    private void generateTransport(OutputSink sink){
+        writeTemplate(sink, apiName + "Transport", "Transport");
+    }
+
+    private void generateHttpTransport(OutputSink sink){
+        writeTemplate(sink, apiName + "HttpTransport", "HttpTransport");
+    }
+
+    private void generateCompressionSupport(SourceWriter sb){
+        sb
+                .append("    public ")
+                .append(apiName)
+                .append("Client setCompression(")
+                .append(apiName)
+                .append("Compression compression) {\n")
+                .append("        this.compression = Objects.requireNonNull(compression, \"compression\");\n")
+                .append("        return this;\n")
+                .append("    }\n\n")
+                .append("    public ")
+                .append(apiName)
+                .append("Compression getCompression() {\n")
+                .append("        return compression;\n")
+                .append("    }\n\n")
+                .append("    public HTTPRequest request(String method, String path) {\n")
+                .append("        HTTPRequest request = super.request(method, path);\n")
+                .append("        String acceptEncoding = compression.getAcceptEncoding();\n")
+                .append("        if(acceptEncoding != null)\n")
+                .append("            request.header(\"Accept-Encoding\", acceptEncoding);\n")
+                .append("        return request;\n")
+                .append("    }\n\n");
+    }
+
+    private void generateCompression(OutputSink sink){
+        writeTemplate(sink, apiName + "Compression", "Compression");
+    }
+
+    private void generatePaginationSupport(SourceWriter sb){
+        sb
+                .append("    public ")
+                .append(apiName)
+                .append("Client setPrefetch(int prefetch) {\n")
+                .append("        this.prefetch = prefetch;\n")
+                .append("        return this;\n")
+                .append("    }\n\n")
+                .append("    public int getPrefetch() {\n")
+                .append("        return prefetch;\n")
+                .append("    }\n\n");
+    }
+
+    private void generatePager(OutputSink sink){
+        writeTemplate(sink, apiName + "Pager", "Pager");
+    }
+
+    private void generateAsyncSupport(SourceWriter sb){
+        sb
+                .append("    public ")
+                .append(apiName)
+                .append("Client setExecutor(Executor executor) {\n")
+                .append("        this.executor = executor;\n")
+                .append("        return this;\n")
+                .append("    }\n\n")
+                .append("    public Executor getExecutor() {\n")
+                .append("        return executor != null ? executor : DefaultExecutor.INSTANCE;\n")
+                .append("    }\n\n")
+                .append("    public <T> CompletableFuture<T> async(Callable<T> call) {\n")
+                .append("        CompletableFuture<T> future = new CompletableFuture<>();\n")
+                .append("        try {\n")
+                .append("            getExecutor().execute(() -> {\n")
+                .append("                try {\n")
+                .append("                    future.complete(call.call());\n")
+                .append("                } catch (")
+                .append(apiName)
+                .append("Exception exception) {\n")
+                .append("                    future.completeExceptionally(exception);\n")
+                .append("                } catch (Throwable throwable) {\n")
+                .append("                    future.completeExceptionally(new ")
+                .append(apiName)
+                .append("Exception(null, throwable));\n")
+                .append("                }\n")
+                .append("            });\n")
+                .append("        } catch (RejectedExecutionException exception) {\n")
+                .append("            future.completeExceptionally(new ")
+                .append(apiName)
+                .append("Exception(null, exception));\n")
+                .append("        }\n")
+                .append("        return future;\n")
+                .append("    }\n\n")
+                .append("    private static class DefaultExecutor {\n\n")
+                .append("        private static final Executor INSTANCE = create();\n\n")
+                .append("        private static Executor create() {\n")
+                .append("            try {\n")
+                .append("                return (Executor) Executors.class.getMethod(\"newVirtualThreadPerTaskExecutor\").invoke(null);\n")
+                .append("            } catch (ReflectiveOperationException exception) {\n")
+                .append("                return Executors.newCachedThreadPool(runnable -> {\n")
+                .append("                    Thread thread = new Thread(runnable);\n")
+                .append("                    thread.setDaemon(true);\n")
+                .append("                    return thread;\n")
+                .append("                });\n")
+                .append("            }\n")
+                .append("        }\n\n")
+                .append("    }\n\n");
+    }
+
+    private void generateException(OutputSink sink){
+        writeClassFile(sink, basePackage+"."+apiName+"Exception", "package " +
                 basePackage +
                 ";\n\n" +
-                "import org.javawebstack.httpclient.HTTPRequest;\n\n" +
+                (transport ? "" : "import org.javawebstack.httpclient.HTTPRequest;\n\n") +
                 "public class " +
                 apiName +
                 "Exception extends Exception {\n\n" +
@@ -198,7 +1133,7 @@ public class JavaClientGenerator {
                 "    public " +
                 apiName +
                 "Exception(HTTPRequest request) {\n" +
-                "        super(\"HTTP Response \"+request.status()+\": \"+request.string());\n" +
+                "        super(\"HTTP Response \"+request.status()+\": \"+" + (compression ? apiName + "Compression.text(request)" : "request.string()") + ");\n" +
                 "        this.request = request;\n" +
                 "    }\n\n" +
                 "    public " +
@@ -214,13 +1149,18 @@ public class JavaClientGenerator {
         );
     }
 
-    private void generateTag(File targetFolder, String tag){
-        StringBuilder sb = new StringBuilder();
+    void generateTag(OutputSink sink, String tag, List<TagOperation> operations){
+        try (SourceWriter sb = openClassFile(sink, basePackage+".tags."+capitalize(tag)+"Tag")) {
+            generateTag(sb, tag, operations);
+        }
+    }
+
+    private void generateTag(SourceWriter sb, String tag, List<TagOperation> operations){
         sb
                 .append("package ")
                 .append(basePackage)
                 .append(".tags;\n\n")
-                .append("import org.javawebstack.httpclient.HTTPRequest;\n")
+                .append(transport ? "" : "import org.javawebstack.httpclient.HTTPRequest;\n")
                 .append("import ")
                 .append(basePackage)
                 .append(".*;\n");
@@ -236,6 +1176,8 @@ public class JavaClientGenerator {
                     .append(basePackage)
                     .append(".responses.*;\n");
         }
+        if(async)
+            sb.append("\nimport java.util.concurrent.CompletableFuture;\n");
         sb
                 .append("\n")
                 .append("public class ")
@@ -251,118 +1193,458 @@ public class JavaClientGenerator {
                 .append("Client client) {\n")
                 .append("        this.client = client;\n")
                 .append("    }\n\n");
-        api.getPaths().forEach((path, pathObject) -> {
-            pathObject.getMethods().forEach((method, operation) -> {
-                if(!operation.getTags().contains(tag))
-                    return;
-                List<OpenAPIParameter> parameters = new ArrayList<>();
-                if(pathObject.getParameters() != null)
-                    parameters.addAll(pathObject.getParameters());
-                if(operation.getParameters() != null)
-                    parameters.addAll(operation.getParameters());
-                OpenAPIResponse response = operation
-                        .getResponses()
-                        .entrySet()
-                        .stream()
-                        .filter(e -> e.getKey().startsWith("2"))
-                        .map(Map.Entry::getValue)
-                        .findFirst()
-                        .orElse(null);
-                String returnType;
-                if(response != null && response.getReference() != null){
-                    returnType = response.getReference().split("/")[3];
+        for(TagOperation tagOperation : operations){
+            String path = tagOperation.path;
+            String method = tagOperation.method;
+            OpenAPIOperation operation = tagOperation.operation;
+            List<OpenAPIParameter> parameters = tagOperation.parameters;
+            OpenAPIResponse response = tagOperation.response;
+            String returnType;
+            if(response != null && response.getReference() != null){
+                returnType = response.getReference().split("/")[3];
+            }else{
+                returnType = getJavaType(
+                        getResponseSchema(
+                                response
+                        )
+                );
+            }
+            List<String> methodParams = new ArrayList<>();
+            List<String> methodArgs = new ArrayList<>();
+            List<OpenAPIParameter> pathParameters = parameters.stream().filter(p -> p.getIn() == OpenAPIParameter.Location.PATH).collect(Collectors.toList());
+            List<OpenAPIParameter> queryParameters = parameters.stream().filter(p -> p.getIn() == OpenAPIParameter.Location.QUERY).collect(Collectors.toList());
+            for(OpenAPIParameter p : pathParameters){
+                String type = getParameterType(p);
+                methodParams.add(type+" "+getParameterName(p.getName(), type));
+                methodArgs.add(getParameterName(p.getName(), type));
+            }
+            for(OpenAPIParameter p : queryParameters){
+                String type = getParameterType(p);
+                methodParams.add(type+" "+getParameterName(p.getName(), type));
+                methodArgs.add(getParameterName(p.getName(), type));
+            }
+            String bodyType = getJavaType(getContentSchema(operation.getRequestBody() != null ? operation.getRequestBody().getContent() : null));
+            if(bodyType != null){
+                methodParams.add(bodyType+" body");
+                methodArgs.add("body");
+            }
+            String operationId = operation.getOperationId();
+            String probe = metrics ? ("client.probe(\"" + operationId + "\", \"" + method.toUpperCase() + "\", \"" + path + "\")") : null;
+            String execute = getExecute("client.", bodyType == null ? "0" : (compression ? "requestBody.size()" : (hasCodecs() ? "requestBytes" : "-1")));
+            boolean idempotentRead = returnType != null && method.equalsIgnoreCase("get");
+            sb.append("    public ");
+            sb.append(returnType == null ? "void" : returnType);
+            sb
+                    .append(" ")
+                    .append(operationId)
+                    .append("(")
+                    .append(String.join(", ", methodParams))
+                    .append(") throws ")
+                    .append(apiName)
+                    .append("Exception {\n");
+            String intendation = appendProbe(sb, "        ", probe);
+            String decodeIntendation = intendation;
+            String url = appendUrl(sb, intendation, path, pathParameters, queryParameters, null, null);
+            if(singleFlight && idempotentRead){
+                sb
+                        .append(intendation)
+                        .append("return ")
+                        .append(metrics ? "client.complete(probe, " : "")
+                        .append("client.coalesce(")
+                        .append(url)
+                        .append(", () -> {\n");
+                decodeIntendation = intendation + "    ";
+            }
+            appendRequest(sb, decodeIntendation, operationId, method, url, bodyType);
+            String decode;
+            if(cache && idempotentRead){
+                decode = "client.cached(" + (metrics ? "probe, " : "") + (resilience ? "request, attempt, " : "request, ") + url + ", " + (hasCodecs() ? getCodecReader(returnType) : (returnType + ".class")) + ")";
+            }else if(hasCodecs()){
+                decode = "client.orError(" + execute + (returnType != null ? (", " + getCodecReader(returnType)) : "") + ")";
+            }else{
+                decode = "client.orError(" + execute + ", " + (returnType == null ? "null" : (returnType + ".class")) + ")";
+            }
+            if(singleFlight && idempotentRead){
+                sb
+                        .append(decodeIntendation)
+                        .append("return ")
+                        .append(decode)
+                        .append(";\n")
+                        .append(intendation)
+                        .append("})")
+                        .append(metrics ? ")" : "")
+                        .append(";\n");
+            }else{
+                appendReturn(sb, intendation, returnType != null, decode);
+            }
+            appendProbeEnd(sb, "        ", probe);
+            sb.append("    }\n\n");
+            if(async){
+                sb
+                        .append("    public CompletableFuture<")
+                        .append(returnType == null ? "Void" : returnType)
+                        .append("> ")
+                        .append(operationId)
+                        .append("Async(")
+                        .append(String.join(", ", methodParams))
+                        .append(") {\n")
+                        .append("        return client.async(() -> ");
+                if(returnType == null){
+                    sb
+                            .append("{\n")
+                            .append("            ")
+                            .append(operationId)
+                            .append("(")
+                            .append(String.join(", ", methodArgs))
+                            .append(");\n")
+                            .append("            return null;\n")
+                            .append("        });\n");
+                }else{
+                    sb
+                            .append(operationId)
+                            .append("(")
+                            .append(String.join(", ", methodArgs))
+                            .append("));\n");
+                }
+                sb.append("    }\n\n");
+            }
+            String elementType = streaming ? getStreamElementType(response, returnType) : null;
+            if(elementType != null){
+                sb
+                        .append("    public ")
+                        .append(apiName)
+                        .append("Cursor<")
+                        .append(elementType)
+                        .append("> ")
+                        .append(operationId)
+                        .append("Stream(")
+                        .append(String.join(", ", methodParams))
+                        .append(") throws ")
+                        .append(apiName)
+                        .append("Exception {\n");
+                intendation = appendProbe(sb, "        ", probe);
+                appendRequest(sb, intendation, operationId, method, appendUrl(sb, intendation, path, pathParameters, queryParameters, null, null), bodyType, transport);
+                appendReturn(sb, intendation, true, "client.cursor(" + execute + ", " + getCodecReader(elementType) + ")");
+                appendProbeEnd(sb, "        ", probe);
+                sb.append("    }\n\n");
+            }
+            OpenAPIParameter pageParameter = pagination ? queryParameters.stream().filter(p -> pageParameters.contains(p.getName()) && pageParameterTypes.contains(getParameterType(p))).findFirst().orElse(null) : null;
+            String pageType = pageParameter != null ? getStreamElementType(response, returnType) : null;
+            if(pageType != null){
+                String pageParameterType = getParameterType(pageParameter);
+                String pageParameterName = getParameterName(pageParameter.getName(), pageParameterType);
+                String firstPage;
+                String pageValue;
+                switch (pageParameterType){
+                    case "Long":
+                        firstPage = pageParameterName + ".intValue()";
+                        pageValue = "(long) (firstPage + offset)";
+                        break;
+                    case "String":
+                        firstPage = "Integer.parseInt(" + pageParameterName + ")";
+                        pageValue = "String.valueOf(firstPage + offset)";
+                        break;
+                    default:
+                        firstPage = pageParameterName;
+                        pageValue = "firstPage + offset";
+                        break;
+                }
+                sb
+                        .append("    public ")
+                        .append(apiName)
+                        .append("Pager<")
+                        .append(pageType)
+                        .append("> ")
+                        .append(operationId)
+                        .append("Pages(")
+                        .append(String.join(", ", methodParams))
+                        .append(") {\n")
+                        .append("        int firstPage = ")
+                        .append(pageParameterName)
+                        .append(" != null ? ")
+                        .append(firstPage)
+                        .append(" : 1;\n")
+                        .append("        return new ")
+                        .append(apiName)
+                        .append("Pager<>(client, offset -> {\n");
+                intendation = appendProbe(sb, "            ", probe);
+                appendRequest(sb, intendation, operationId, method, appendUrl(sb, intendation, path, pathParameters, queryParameters, pageParameter, pageValue), bodyType);
+                appendReturn(sb, intendation, true, "client.orError(" + execute + ", " + getCodecReader(pageType + "[]") + ")");
+                appendProbeEnd(sb, "            ", probe);
+                sb
+                        .append("        });\n")
+                        .append("    }\n\n");
+            }
+        }
+        sb.append("}");
+    }
+
+    private String appendUrl(SourceWriter sb, String intendation, String path, List<OpenAPIParameter> pathParameters, List<OpenAPIParameter> queryParameters, OpenAPIParameter pageParameter, String pageValue){
+        List<String> parts = new ArrayList<>();
+        int length = 0;
+        int dynamic = 0;
+        int offset = 0;
+        Matcher matcher = PATH_VARIABLE.matcher(path);
+        while (matcher.find()){
+            OpenAPIParameter parameter = pathParameters.stream().filter(p -> p.getName().equals(matcher.group(1))).findFirst().orElse(null);
+            if(parameter == null)
+                continue;
+            if(matcher.start() > offset){
+                parts.add("target.append(\"" + path.substring(offset, matcher.start()) + "\");");
+                length += matcher.start() - offset;
+            }
+            parts.add(apiName + "Url.segment(target, \"" + parameter.getName() + "\", " + getParameterName(parameter.getName(), getParameterType(parameter)) + ");");
+            dynamic++;
+            offset = matcher.end();
+        }
+        if(dynamic == 0 && queryParameters.size() == 0)
+            return "\"" + path + "\"";
+        if(offset < path.length()){
+            parts.add("target.append(\"" + path.substring(offset) + "\");");
+            length += path.length() - offset;
+        }
+        if(queryParameters.size() > 0)
+            parts.add("char separator = '?';");
+        for(int i = 0; i < queryParameters.size(); i++){
+            OpenAPIParameter parameter = queryParameters.get(i);
+            String name = encodeQueryName(parameter.getName());
+            String value = parameter == pageParameter ? pageValue : getParameterName(parameter.getName(), getParameterType(parameter));
+            parts.add((i < queryParameters.size() - 1 ? "separator = " : "") + apiName + "Url.query(target, separator, \"" + name + "=\", " + value + ");");
+            length += name.length() + 2;
+            dynamic++;
+        }
+        sb
+                .append(intendation)
+                .append("StringBuilder target = new StringBuilder(")
+                .append(length + dynamic * 16)
+                .append(");\n");
+        for(String part : parts){
+            sb
+                    .append(intendation)
+                    .append(part)
+                    .append("\n");
+        }
+        sb
+                .append(intendation)
+                .append("String url = target.toString();\n");
+        return "url";
+    }
+
+    private void appendRequest(SourceWriter sb, String intendation, String operationId, String method, String url, String bodyType){
+        appendRequest(sb, intendation, operationId, method, url, bodyType, false);
+    }
+
+    private void appendRequest(SourceWriter sb, String intendation, String operationId, String method, String url, String bodyType, boolean streamed){
+        String create = "client." + method + "(" + url + ")" + (streamed ? ".streamed()" : "");
+        sb
+                .append(intendation)
+                .append("HTTPRequest request = ")
+                .append(create)
+                .append(";\n");
+        if(bodyType != null){
+            if(hasCodecs()){
+                sb.append(intendation);
+                if(compression){
+                    sb
+                            .append(apiName)
+                            .append("Compression.Body requestBody = client.jsonBody(\"")
+                            .append(operationId)
+                            .append("\", ");
                 }else{
-                    returnType = getJavaType(
-                            getResponseSchema(
-                                    response
-                            )
-                    );
-                }
-                List<String> methodParams = new ArrayList<>();
-                String url = "\""+path+"\"";
-                for(OpenAPIParameter p : parameters.stream().filter(p -> p.getIn() == OpenAPIParameter.Location.PATH).collect(Collectors.toList())){
-                    url = url.replace("{"+p.getName()+"}", "\" + "+p.getName()+" + \"");
-                    String type = getJavaType(p.getSchema());
-                    if(type == null)
-                        type = "String";
-                    methodParams.add(type+" "+p.getName());
-                }
-                boolean hasQuery = false;
-                if(parameters.stream().filter(p -> p.getIn() == OpenAPIParameter.Location.QUERY).findFirst().orElse(null) != null){
-                    hasQuery = true;
-                    methodParams.add("Map<String, String> queryParams");
+                    sb
+                            .append(metrics ? "int requestBytes = " : "")
+                            .append("client.jsonBody(");
                 }
-                String bodyType = getJavaType(getContentSchema(operation.getRequestBody() != null ? operation.getRequestBody().getContent() : null));
-                if(bodyType != null)
-                    methodParams.add(bodyType+" body");
-                sb.append("    public ");
-                sb.append(returnType == null ? "void" : returnType);
                 sb
-                        .append(" ")
-                        .append(operation.getOperationId())
-                        .append("(")
-                        .append(String.join(", ", methodParams))
-                        .append(") throws ")
-                        .append(apiName)
-                        .append("Exception {\n")
-                        .append("        HTTPRequest request = client.")
-                        .append(method)
-                        .append("(")
-                        .append(url)
+                        .append("request, body, ")
+                        .append(getCodecWriter(bodyType))
                         .append(");\n");
-                if(hasQuery){
-                    sb
-                            .append("        if(queryParams != null) {\n")
-                            .append("            for(String key : queryParams) {\n")
-                            .append("                request.query(key, queryParams.get(key));")
-                            .append("            }\n")
-                            .append("        }\n");
-                }
-                if(bodyType != null)
-                    sb.append("        request.jsonBody(body);\n");
+            }else{
                 sb
-                        .append("        ")
-                        .append(returnType == null ? "" : "return ")
-                        .append("client.orError(request.execute(), ")
-                        .append(returnType == null ? "null" : (returnType + ".class"))
-                        .append(");\n")
-                        .append("    }\n\n");
-            });
-        });
-        sb.append("}");
-        writeClassFile(targetFolder, basePackage+".tags."+capitalize(tag)+"Tag", sb.toString());
+                        .append(intendation)
+                        .append("request.jsonBody(body);\n");
+            }
+        }
+        if(!resilience)
+            return;
+        sb
+                .append(intendation)
+                .append(apiName)
+                .append("Client.Attempt attempt = client.attempt(\"")
+                .append(operationId)
+                .append("\", \"")
+                .append(method.toUpperCase(Locale.ROOT))
+                .append("\", () -> ");
+        if(bodyType == null || compression){
+            sb
+                    .append(bodyType != null ? "requestBody.applyTo(" : "")
+                    .append(create)
+                    .append(bodyType != null ? "));\n" : ");\n");
+            return;
+        }
+        sb
+                .append("{\n")
+                .append(intendation)
+                .append("    HTTPRequest retry = ")
+                .append(create)
+                .append(";\n")
+                .append(intendation);
+        if(hasCodecs()){
+            sb
+                    .append("    client.jsonBody(retry, body, ")
+                    .append(getCodecWriter(bodyType))
+                    .append(");\n");
+        }else{
+            sb.append("    retry.jsonBody(body);\n");
+        }
+        sb
+                .append(intendation)
+                .append("    return retry;\n")
+                .append(intendation)
+                .append("});\n");
     }
 
-    private void generateSchema(File targetFolder, String name, OpenAPISchema schema){
-        StringBuilder sb = new StringBuilder();
-        sb.append("package ")
-                .append(basePackage)
-                .append(".schemas;\n\n")
-                .append("import com.google.gson.annotations.SerializedName;\n\n");
-        generateSchema(sb, "", name, schema, new ArrayList<>());
-        writeClassFile(targetFolder, basePackage+".schemas."+name, sb.toString());
+    private String getParameterType(OpenAPIParameter parameter){
+        String type = getJavaType(parameter.getSchema());
+        return type == null ? "String" : type;
+    }
+
+    String getParameterName(String name, String type){
+        String sName = reservedKeywords.contains(name) ? null : getSerializedName(name, type);
+        if(sName == null)
+            sName = name;
+        if(reservedKeywords.contains(sName) || reservedParameterNames.contains(sName))
+            sName = sName + "Param";
+        return sName;
     }
 
-    private void generateResponse(File targetFolder, String name, OpenAPIResponse response){
+    private static String encodeQueryName(String name){
         StringBuilder sb = new StringBuilder();
-        sb.append("package ")
-                .append(basePackage)
-                .append(".responses;\n\n");
-        if(api.getComponents().getSchemas() != null && api.getComponents().getSchemas().size() > 0){
+        for(byte b : name.getBytes(StandardCharsets.UTF_8)){
+            char c = (char) (b & 0xFF);
+            if((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '.' || c == '_' || c == '~'){
+                sb.append(c);
+            }else{
+                sb.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4, 16))).append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+            }
+        }
+        return sb.toString();
+    }
+
+    private String getExecute(String target, String requestBytes){
+        if(metrics)
+            return target + "execute(probe, request, " + requestBytes + (resilience ? ", attempt)" : ")");
+        return resilience ? target + "send(request, attempt)" : "request.execute()";
+    }
+
+    private String appendProbe(SourceWriter sb, String intendation, String probe){
+        if(probe == null)
+            return intendation;
+        sb
+                .append(intendation)
+                .append(apiName)
+                .append("Client.Probe probe = ")
+                .append(probe)
+                .append(";\n")
+                .append(intendation)
+                .append("try {\n");
+        return intendation + "    ";
+    }
+
+    private void appendReturn(SourceWriter sb, String intendation, boolean hasValue, String expression){
+        if(!hasValue){
             sb
-                    .append("import ")
+                    .append(intendation)
+                    .append(expression)
+                    .append(";\n");
+            if(metrics){
+                sb
+                        .append(intendation)
+                        .append("client.complete(probe, null);\n");
+            }
+            return;
+        }
+        sb
+                .append(intendation)
+                .append("return ")
+                .append(metrics ? ("client.complete(probe, " + expression + ")") : expression)
+                .append(";\n");
+    }
+
+    private void appendProbeEnd(SourceWriter sb, String intendation, String probe){
+        if(probe == null)
+            return;
+        sb
+                .append(intendation)
+                .append("} catch (")
+                .append(apiName)
+                .append("Exception exception) {\n")
+                .append(intendation)
+                .append("    throw client.fail(probe, exception);\n")
+                .append(intendation)
+                .append("} catch (RuntimeException exception) {\n")
+                .append(intendation)
+                .append("    throw client.fail(probe, exception);\n")
+                .append(intendation)
+                .append("}\n");
+    }
+
+    private String getStreamElementType(OpenAPIResponse response, String returnType){
+        String elementType = null;
+        if(returnType != null && returnType.endsWith("[]")){
+            elementType = returnType.substring(0, returnType.length()-2);
+        }else if(response != null && response.getReference() != null){
+            OpenAPISchema schema = getResponseSchema(api.getComponents().getResponses().get(response.getReference().split("/")[3]));
+            if(schema != null && schema.getReference() == null && schema.getType() == OpenAPIDataType.ARRAY)
+                elementType = schema.getItems() == null ? "com.google.gson.JsonObject" : getJavaType(schema.getItems());
+        }
+        if(elementType == null || elementType.startsWith("null"))
+            return null;
+        return elementType;
+    }
+
+    void generateSchema(OutputSink sink, String name, OpenAPISchema schema){
+        generateSchema(sink, name, schema, Collections.emptyMap());
+    }
+
+    void generateSchema(OutputSink sink, String name, OpenAPISchema schema, Map<OpenAPISchema, String> sharedSchemas){
+        try (SourceWriter sb = openClassFile(sink, basePackage+".schemas."+name)) {
+            sb.append("package ")
                     .append(basePackage)
-                    .append(".schemas.*;\n");
+                    .append(".schemas;\n\n")
+                    .append("import com.google.gson.annotations.SerializedName;\n");
+            generateCodecImports(sb);
+            sb.append("\n");
+            generateSchema(sb, "", name, schema, new HashSet<>(sharedSchemas.values()), sharedSchemas);
         }
-        sb.append("import com.google.gson.annotations.SerializedName;\n\n");
+    }
+
+    void generateResponse(OutputSink sink, String name, OpenAPIResponse response){
+        generateResponse(sink, name, response, Collections.emptyMap());
+    }
+
+    void generateResponse(OutputSink sink, String name, OpenAPIResponse response, Map<OpenAPISchema, String> sharedSchemas){
         OpenAPISchema schema = getResponseSchema(response);
         if(schema == null)
             return;
-        generateSchema(sb, "", name, schema, new ArrayList<>());
-        writeClassFile(targetFolder, basePackage+".responses."+name, sb.toString());
+        try (SourceWriter sb = openClassFile(sink, basePackage+".responses."+name)) {
+            sb.append("package ")
+                    .append(basePackage)
+                    .append(".responses;\n\n");
+            if(api.getComponents().getSchemas() != null && api.getComponents().getSchemas().size() > 0){
+                sb
+                        .append("import ")
+                        .append(basePackage)
+                        .append(".schemas.*;\n");
+            }
+            sb.append("import com.google.gson.annotations.SerializedName;\n");
+            generateCodecImports(sb);
+            sb.append("\n");
+            generateSchema(sb, "", name, schema, new HashSet<>(sharedSchemas.values()), sharedSchemas);
+        }
     }
 
-    private void generateSchema(StringBuilder sb, String intendation, String name, OpenAPISchema schema, List<String> usedNames){
+    private void generateSchema(SourceWriter sb, String intendation, String name, OpenAPISchema schema, Set<String> usedNames, Map<OpenAPISchema, String> sharedSchemas){
         Map<String, String> types = new HashMap<>();
         Map<String, OpenAPISchema> subSchemas = new HashMap<>();
         Map<String, String> serializedNames = new HashMap<>();
@@ -371,15 +1653,11 @@ public class JavaClientGenerator {
                 String type = getJavaType(pSchema);
                 if(type == null)
                     type = "null";
-                if(type.startsWith("null")){
-                    String subName = capitalize(pName);
-                    if(subName.endsWith("ies")){
-                        subName = subName.substring(0, subName.length()-3)+"y";
-                    }else if(subName.endsWith("es")){
-                        subName = subName.substring(0, subName.length()-2);
-                    }else if(subName.endsWith("s")) {
-                        subName = subName.substring(0, subName.length() - 1);
-                    }
+                OpenAPISchema subSchema = pSchema.getType() == OpenAPIDataType.ARRAY ? pSchema.getItems() : pSchema;
+                if(type.startsWith("null") && sharedSchemas.containsKey(subSchema)){
+                    type = sharedSchemas.get(subSchema)+type.substring(4);
+                }else if(type.startsWith("null")){
+                    String subName = getSubSchemaName(pName);
                     int i=0;
                     String orig = subName;
                     while (usedNames.contains(subName)){
@@ -387,7 +1665,7 @@ public class JavaClientGenerator {
                         subName = orig + i;
                     }
                     usedNames.add(subName);
-                    subSchemas.put(subName, pSchema.getType() == OpenAPIDataType.ARRAY ? pSchema.getItems() : pSchema);
+                    subSchemas.put(subName, subSchema);
                     type = subName+type.substring(4);
                 }
                 String sName = getSerializedName(pName, type);
@@ -398,6 +1676,14 @@ public class JavaClientGenerator {
                 types.put(pName, type);
             });
         }
+        Map<String, Integer> presence = new LinkedHashMap<>();
+        if(primitives){
+            types.replaceAll((pName, pType) -> getPrimitiveType(pType));
+            types.forEach((pName, pType) -> {
+                if(getPrimitiveRead(pType) != null)
+                    presence.put(pName, presence.size());
+            });
+        }
         sb
                 .append(intendation)
                 .append("public ");
@@ -412,8 +1698,20 @@ public class JavaClientGenerator {
                 sb.append(intendation).append("    @SerializedName(\"").append(serializedNames.get(pName)).append("\")\n");
             sb.append(intendation).append("    private ").append(pType).append(" ").append(pName).append(";\n");
         });
+        if(presence.size() > 0){
+            sb.append(intendation).append("    private transient ");
+            if(presence.size() > 64){
+                sb.append("long[] presenceBits = new long[").append((presence.size() + 63) / 64).append("];\n");
+            }else{
+                sb.append(presence.size() > 32 ? "long" : "int").append(" presenceBits;\n");
+            }
+        }
         sb.append("\n");
         types.forEach((pName, pType) -> {
+            if(presence.containsKey(pName)){
+                generatePresenceAccessors(sb, intendation, name, pName, pType, presence.get(pName), presence.size());
+                return;
+            }
             sb
                     .append(intendation)
                     .append("    public ")
@@ -464,14 +1762,384 @@ public class JavaClientGenerator {
                         .append("    }\n\n");
             }
         });
+        if(hasCodecs())
+            generateCodecMethods(sb, intendation, name, types, serializedNames, presence);
         if(subSchemas.size()>0){
-            subSchemas.forEach((subName, subSchema) -> generateSchema(sb, intendation+"    ", subName, subSchema, usedNames));
+            subSchemas.forEach((subName, subSchema) -> generateSchema(sb, intendation+"    ", subName, subSchema, usedNames, sharedSchemas));
             sb.append("\n");
         }
         sb.append(intendation).append("}");
     }
 
-    private String getSerializedName(String name, String type){
+    private void generatePresenceAccessors(SourceWriter sb, String intendation, String name, String pName, String pType, int bit, int bits){
+        String boxedType = getBoxedType(pType);
+        String present = "(" + getPresenceField("this", bit, bits) + " & " + getPresenceMask(bit, bits) + ") != 0";
+        sb
+                .append(intendation)
+                .append("    public ")
+                .append(name)
+                .append(" set")
+                .append(capitalize(pName))
+                .append("(")
+                .append(boxedType)
+                .append(" ")
+                .append(pName)
+                .append(") {\n")
+                .append(intendation)
+                .append("        if(")
+                .append(pName)
+                .append(" == null)\n")
+                .append(intendation)
+                .append("            ")
+                .append(getPresenceField("this", bit, bits))
+                .append(" &= ~(")
+                .append(getPresenceMask(bit, bits))
+                .append(");\n")
+                .append(intendation)
+                .append("        else\n")
+                .append(intendation)
+                .append("            set")
+                .append(capitalize(pName))
+                .append("((")
+                .append(pType)
+                .append(") ")
+                .append(pName)
+                .append(");\n")
+                .append(intendation)
+                .append("        return this;\n")
+                .append(intendation)
+                .append("    }\n\n")
+                .append(intendation)
+                .append("    public ")
+                .append(name)
+                .append(" set")
+                .append(capitalize(pName))
+                .append("(")
+                .append(pType)
+                .append(" ")
+                .append(pName)
+                .append(") {\n")
+                .append(intendation)
+                .append("        this.")
+                .append(pName)
+                .append(" = ")
+                .append(pName)
+                .append(";\n")
+                .append(intendation)
+                .append("        ")
+                .append(getPresenceField("this", bit, bits))
+                .append(" |= ")
+                .append(getPresenceMask(bit, bits))
+                .append(";\n")
+                .append(intendation)
+                .append("        return this;\n")
+                .append(intendation)
+                .append("    }\n\n")
+                .append(intendation)
+                .append("    public ")
+                .append(boxedType)
+                .append(" get")
+                .append(capitalize(pName))
+                .append("() {\n")
+                .append(intendation)
+                .append("        return ")
+                .append(present)
+                .append(" ? ")
+                .append(boxedType)
+                .append(".valueOf(this.")
+                .append(pName)
+                .append(") : null;\n")
+                .append(intendation)
+                .append("    }\n\n")
+                .append(intendation)
+                .append("    public ")
+                .append(pType)
+                .append(" get")
+                .append(capitalize(pName))
+                .append("OrDefault(")
+                .append(pType)
+                .append(" defaultValue) {\n")
+                .append(intendation)
+                .append("        return ")
+                .append(present)
+                .append(" ? this.")
+                .append(pName)
+                .append(" : defaultValue;\n")
+                .append(intendation)
+                .append("    }\n\n")
+                .append(intendation)
+                .append("    public boolean has")
+                .append(capitalize(pName))
+                .append("() {\n")
+                .append(intendation)
+                .append("        return ")
+                .append(present)
+                .append(";\n")
+                .append(intendation)
+                .append("    }\n\n");
+        if(pType.equals("boolean")){
+            sb.append(intendation)
+                    .append("    public boolean is")
+                    .append(capitalize(pName))
+                    .append("() {\n")
+                    .append(intendation)
+                    .append("        return ")
+                    .append(present)
+                    .append(" && this.")
+                    .append(pName)
+                    .append(";\n")
+                    .append(intendation)
+                    .append("    }\n\n");
+        }
+    }
+
+    private static String getPresenceField(String target, int bit, int bits){
+        return bits > 64 ? target+".presenceBits["+(bit / 64)+"]" : target+".presenceBits";
+    }
+
+    private static String getPresenceMask(int bit, int bits){
+        return bits > 32 ? "1L << "+(bit % 64) : "1 << "+bit;
+    }
+
+    private static String getPrimitiveType(String type){
+        if(type.endsWith("[]"))
+            return getPrimitiveType(type.substring(0, type.length()-2))+"[]";
+        switch (type){
+            case "Integer":
+                return "int";
+            case "Long":
+            case "Float":
+            case "Double":
+            case "Boolean":
+                return type.toLowerCase(Locale.ROOT);
+            default:
+                return type;
+        }
+    }
+
+    private static String getBoxedType(String type){
+        return type.equals("int") ? "Integer" : capitalize(type);
+    }
+
+    private static String getPrimitiveRead(String type){
+        switch (type){
+            case "int":
+                return "reader.nextInt()";
+            case "long":
+                return "reader.nextLong()";
+            case "float":
+                return "(float) reader.nextDouble()";
+            case "double":
+                return "reader.nextDouble()";
+            case "boolean":
+                return "reader.nextBoolean()";
+            default:
+                return null;
+        }
+    }
+
+    private static String getSubSchemaName(String name){
+        String subName = capitalize(name);
+        if(subName.endsWith("ies")){
+            subName = subName.substring(0, subName.length()-3)+"y";
+        }else if(subName.endsWith("es")){
+            subName = subName.substring(0, subName.length()-2);
+        }else if(subName.endsWith("s")) {
+            subName = subName.substring(0, subName.length() - 1);
+        }
+        return subName;
+    }
+
+    private void generateCodecImports(SourceWriter sb){
+        if(!hasCodecs())
+            return;
+        sb
+                .append("import com.google.gson.stream.JsonReader;\n")
+                .append("import com.google.gson.stream.JsonWriter;\n")
+                .append("import ")
+                .append(basePackage)
+                .append(".")
+                .append(apiName)
+                .append("Codec;\n\n")
+                .append("import java.io.IOException;\n");
+    }
+
+    private void generateCodecMethods(SourceWriter sb, String intendation, String name, Map<String, String> types, Map<String, String> serializedNames, Map<String, Integer> presence){
+        sb
+                .append(intendation)
+                .append("    public static ")
+                .append(name)
+                .append(" read(JsonReader reader) throws IOException {\n")
+                .append(intendation)
+                .append("        if(")
+                .append(apiName)
+                .append("Codec.isNull(reader))\n")
+                .append(intendation)
+                .append("            return null;\n")
+                .append(intendation)
+                .append("        ")
+                .append(name)
+                .append(" value = new ")
+                .append(name)
+                .append("();\n")
+                .append(intendation)
+                .append("        reader.beginObject();\n")
+                .append(intendation)
+                .append("        while (reader.hasNext()) {\n")
+                .append(intendation)
+                .append("            switch (reader.nextName()) {\n");
+        types.forEach((pName, pType) -> {
+            sb
+                    .append(intendation)
+                    .append("                case \"")
+                    .append(serializedNames.getOrDefault(pName, pName))
+                    .append("\":\n");
+            if(presence.containsKey(pName)){
+                sb
+                        .append(intendation)
+                        .append("                    if(!")
+                        .append(apiName)
+                        .append("Codec.isNull(reader)) {\n")
+                        .append(intendation)
+                        .append("                        value.")
+                        .append(pName)
+                        .append(" = ")
+                        .append(getPrimitiveRead(pType))
+                        .append(";\n")
+                        .append(intendation)
+                        .append("                        ")
+                        .append(getPresenceField("value", presence.get(pName), presence.size()))
+                        .append(" |= ")
+                        .append(getPresenceMask(presence.get(pName), presence.size()))
+                        .append(";\n")
+                        .append(intendation)
+                        .append("                    }\n");
+            }else{
+                sb
+                        .append(intendation)
+                        .append("                    value.")
+                        .append(pName)
+                        .append(" = ")
+                        .append(getCodecRead(pType))
+                        .append(";\n");
+            }
+            sb
+                    .append(intendation)
+                    .append("                    break;\n");
+        });
+        sb
+                .append(intendation)
+                .append("                default:\n")
+                .append(intendation)
+                .append("                    reader.skipValue();\n")
+                .append(intendation)
+                .append("            }\n")
+                .append(intendation)
+                .append("        }\n")
+                .append(intendation)
+                .append("        reader.endObject();\n")
+                .append(intendation)
+                .append("        return value;\n")
+                .append(intendation)
+                .append("    }\n\n")
+                .append(intendation)
+                .append("    public void write(JsonWriter writer) throws IOException {\n")
+                .append(intendation)
+                .append("        writer.beginObject();\n");
+        types.forEach((pName, pType) -> {
+            boolean present = presence.containsKey(pName);
+            sb
+                    .append(intendation)
+                    .append("        if(")
+                    .append(present ? "(" + getPresenceField("this", presence.get(pName), presence.size()) + " & " + getPresenceMask(presence.get(pName), presence.size()) + ") != 0" : "this." + pName + " != null")
+                    .append(") {\n")
+                    .append(intendation)
+                    .append("            writer.name(\"")
+                    .append(serializedNames.getOrDefault(pName, pName))
+                    .append("\");\n")
+                    .append(intendation)
+                    .append("            ")
+                    .append(present ? "writer.value(" + (pType.equals("float") ? "(Float) " : "") + "this." + pName + ")" : getCodecWrite(pType, "this."+pName))
+                    .append(";\n")
+                    .append(intendation)
+                    .append("        }\n");
+        });
+        sb
+                .append(intendation)
+                .append("        writer.endObject();\n")
+                .append(intendation)
+                .append("    }\n\n");
+    }
+
+    private String getCodecRead(String type){
+        String primitive = getCodecPrimitive(type);
+        if(primitive != null)
+            return apiName+"Codec.read"+primitive+"(reader)";
+        if(type.endsWith("[]")){
+            String elementType = type.substring(0, type.length()-2);
+            return apiName+"Codec.readArray(reader, "+getCodecReader(elementType)+", "+elementType+"[]::new)";
+        }
+        return type+".read(reader)";
+    }
+
+    private String getCodecReader(String type){
+        String primitive = getCodecPrimitive(type);
+        if(primitive != null)
+            return apiName+"Codec::read"+primitive;
+        if(type.endsWith("[]")){
+            String elementType = type.substring(0, type.length()-2);
+            return apiName+"Codec.arrayReader("+getCodecReader(elementType)+", "+elementType+"[]::new)";
+        }
+        return type+"::read";
+    }
+
+    private String getCodecWrite(String type, String value){
+        String primitive = getCodecPrimitive(type);
+        if(primitive != null)
+            return apiName+"Codec.write"+primitive+"("+value+", writer)";
+        if(type.endsWith("[]"))
+            return apiName+"Codec.writeArray("+value+", writer, "+getCodecWriter(type.substring(0, type.length()-2))+")";
+        return value+".write(writer)";
+    }
+
+    private String getCodecWriter(String type){
+        String primitive = getCodecPrimitive(type);
+        if(primitive != null)
+            return apiName+"Codec::write"+primitive;
+        if(type.endsWith("[]"))
+            return apiName+"Codec.arrayWriter("+getCodecWriter(type.substring(0, type.length()-2))+")";
+        return type+"::write";
+    }
+
+    private static String getCodecPrimitive(String type){
+        switch (type){
+            case "String":
+            case "Integer":
+            case "Long":
+            case "Float":
+            case "Double":
+            case "Boolean":
+                return type;
+            case "java.util.UUID":
+                return "UUID";
+            case "com.google.gson.JsonObject":
+                return "JsonObject";
+            case "int[]":
+            case "long[]":
+            case "float[]":
+            case "double[]":
+            case "boolean[]":
+                return capitalize(type.substring(0, type.length()-2))+"Array";
+            default:
+                return null;
+        }
+    }
+
+    private void generateCodec(OutputSink sink){
+        writeTemplate(sink, apiName + "Codec", "Codec");
+    }
+
+    String getSerializedName(String name, String type){
         StringBuilder sb = new StringBuilder();
         for(int i = 0; i < name.length(); i++){
             if(name.charAt(i) == '_' || name.charAt(i) == '-' || name.charAt(i) == '.'){
@@ -509,7 +2177,7 @@ public class JavaClientGenerator {
         return sName;
     }
 
-    private String getJavaType(OpenAPISchema schema){
+    String getJavaType(OpenAPISchema schema){
         if(schema == null)
             return null;
         if(schema.getReference() != null)
@@ -564,16 +2232,30 @@ public class JavaClientGenerator {
         return Character.toUpperCase(source.charAt(0))+source.substring(1);
     }
 
-    private static void writeFile(File file, String content){
-        if(!file.getParentFile().exists())
-            file.getParentFile().mkdirs();
+    private static void writeFile(OutputSink sink, String path, String content){
         try {
-            FileOutputStream fos = new FileOutputStream(file);
-            fos.write(content.getBytes(StandardCharsets.UTF_8));
-            fos.flush();
-            fos.close();
+            sink.write(path, content);
         } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static class TagOperation {
+
+        final String path;
+        final String method;
+        final OpenAPIOperation operation;
+        final List<OpenAPIParameter> parameters;
+        final OpenAPIResponse response;
+
+        TagOperation(String path, String method, OpenAPIOperation operation, List<OpenAPIParameter> parameters, OpenAPIResponse response){
+            this.path = path;
+            this.method = method;
+            this.operation = operation;
+            this.parameters = parameters;
+            this.response = response;
         }
+
     }
 
 }
@@ -0,0 +1,68 @@
+package org.javawebstack.openapi.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+class Template {
+
+    private static final String FOLDER = "templates/";
+    private static final String EXTENSION = ".java.tpl";
+    private static final Pattern SECTION = Pattern.compile("^\\{\\{([#^])(\\w+)}}\\n(.*?)^\\{\\{/\\2}}\\n", Pattern.MULTILINE | Pattern.DOTALL);
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{(\\w+)}}");
+    private static final Map<String, String> SOURCES = new ConcurrentHashMap<>();
+
+    static String render(String name, Map<String, Object> context) {
+        String source = replaceVariables(name, replaceSections(name, SOURCES.computeIfAbsent(name, Template::load), context), context);
+        return source.endsWith("\n") ? source.substring(0, source.length() - 1) : source;
+    }
+
+    static String load(String name) {
+        try (InputStream stream = Template.class.getResourceAsStream(FOLDER + name + EXTENSION)) {
+            if(stream == null)
+                throw new IllegalArgumentException("Unknown template '" + name + "'");
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int r;
+            while ((r = stream.read(buffer)) != -1)
+                baos.write(buffer, 0, r);
+            return new String(baos.toByteArray(), StandardCharsets.UTF_8).replace("\r", "");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String replaceSections(String name, String source, Map<String, Object> context) {
+        Matcher matcher = SECTION.matcher(source);
+        StringBuffer sb = new StringBuffer();
+        while (matcher.find()){
+            Object value = context.get(matcher.group(2));
+            if(!(value instanceof Boolean))
+                throw new IllegalArgumentException("Template '" + name + "' uses unknown flag '" + matcher.group(2) + "'");
+            boolean include = matcher.group(1).equals("#") == (Boolean) value;
+            matcher.appendReplacement(sb, include ? Matcher.quoteReplacement(replaceSections(name, matcher.group(3), context)) : "");
+        }
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+
+    private static String replaceVariables(String name, String source, Map<String, Object> context) {
+        Matcher matcher = VARIABLE.matcher(source);
+        StringBuffer sb = new StringBuffer();
+        while (matcher.find()){
+            Object value = context.get(matcher.group(1));
+            if(!(value instanceof String))
+                throw new IllegalArgumentException("Template '" + name + "' uses unknown variable '" + matcher.group(1) + "'");
+            matcher.appendReplacement(sb, Matcher.quoteReplacement((String) value));
+        }
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+
+}
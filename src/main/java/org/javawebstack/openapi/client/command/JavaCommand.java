@@ -3,38 +3,290 @@ package org.javawebstack.openapi.client.command;
 import org.javawebstack.command.Command;
 import org.javawebstack.command.CommandResult;
 import org.javawebstack.command.CommandSystem;
+import org.javawebstack.openapi.client.GeneratorProfile;
 import org.javawebstack.openapi.client.JavaClientGenerator;
+import org.javawebstack.openapi.client.output.DirectoryOutputSink;
+import org.javawebstack.openapi.client.output.JarOutputSink;
+import org.javawebstack.openapi.client.output.OutputCache;
+import org.javawebstack.openapi.client.output.OutputSink;
+import org.javawebstack.openapi.client.output.ZipOutputSink;
 import org.javawebstack.openapi.parser.OpenAPI;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 public class JavaCommand implements Command {
 
+    private static final List<String> OUTPUT_FORMATS = Arrays.asList("dir", "zip", "jar");
+    private static final List<String> UNCACHED_PARAMS = Arrays.asList("out", "classpath", "incremental", "watch", "threads", "profile", "spec-cache");
+    private static final List<String> SPEC_EXTENSIONS = Arrays.asList(".json", ".yml", ".yaml");
+
     public CommandResult execute(CommandSystem system, List<String> args, Map<String, List<String>> params) {
-        if(args.size() < 1)
-            return CommandResult.syntax("java <specFile>");
-        File file = new File(args.get(0));
-        OpenAPI api = OpenAPI.fromFile(file);
-        if(api == null)
-            return CommandResult.error("The spec file isn't readable");
-        JavaClientGenerator clientGenerator = new JavaClientGenerator(api);
+        if(args.size() < 1 && !params.containsKey("manifest"))
+            return CommandResult.syntax("java <specFile|folder>... [--manifest <file>]");
+        if(args.size() == 1 && !params.containsKey("manifest") && !new File(args.get(0)).isDirectory())
+            return single(new File(args.get(0)), params);
+        if(params.containsKey("watch"))
+            return CommandResult.error("Can't watch multiple specs");
+        if(params.containsKey("out") && params.get("out").get(0).equals("-"))
+            return CommandResult.error("Can't write multiple specs to stdout");
+
+        List<Spec> specs = new ArrayList<>();
+        for(String arg : args){
+            File file = new File(arg);
+            if(file.isDirectory()){
+                File[] files = file.listFiles(f -> f.isFile() && SPEC_EXTENSIONS.stream().anyMatch(e -> f.getName().endsWith(e)));
+                if(files != null){
+                    Arrays.sort(files);
+                    for(File f : files)
+                        specs.add(new Spec(f, getBatchParams(f, params, new HashMap<>())));
+                }
+            } else {
+                specs.add(new Spec(file, getBatchParams(file, params, new HashMap<>())));
+            }
+        }
+        if(params.containsKey("manifest")){
+            try {
+                specs.addAll(readManifest(new File(params.get("manifest").get(0)), params));
+            } catch (IOException ex) {
+                return CommandResult.error("Failed to read the manifest: "+ex.getMessage());
+            }
+        }
+        if(specs.isEmpty())
+            return CommandResult.error("No spec files found");
+        Map<Path, Spec> outputs = new HashMap<>();
+        for(Spec spec : specs){
+            if(!spec.params.containsKey("out")){
+                String out = getDefaultArchive(spec.file, spec.params);
+                if(out != null)
+                    spec.params.put("out", Collections.singletonList(out));
+            }
+            for(String name : Arrays.asList("out", "profile")){
+                if(!spec.params.containsKey(name) || spec.params.get(name).isEmpty())
+                    continue;
+                Path output = new File(spec.params.get(name).get(0)).getAbsoluteFile().toPath().normalize();
+                Spec other = outputs.putIfAbsent(output, spec);
+                if(other != null)
+                    return CommandResult.error("'"+other.file.getPath()+"' and '"+spec.file.getPath()+"' would both be written to '"+output+"', set a different --"+name+" for one of them in a manifest");
+            }
+        }
+        return batch(specs, params);
+    }
+
+    private CommandResult single(File file, Map<String, List<String>> params) {
+        if(params.containsKey("watch") && params.containsKey("out") && params.get("out").get(0).equals("-"))
+            return CommandResult.error("Can't watch while writing to stdout");
+        String error = generate(file, params);
+        if(error != null)
+            return CommandResult.error(error);
+        if(params.containsKey("watch"))
+            return watch(file, params);
+        return CommandResult.success();
+    }
+
+    private CommandResult batch(List<Spec> specs, Map<String, List<String>> params) {
+        int jobs = Runtime.getRuntime().availableProcessors();
+        if(params.containsKey("jobs")){
+            try {
+                jobs = Integer.parseInt(params.get("jobs").get(0));
+            } catch (NumberFormatException ex) {
+                return CommandResult.error("Invalid job count '"+params.get("jobs").get(0)+"'");
+            }
+        }
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(jobs, specs.size())));
+        try {
+            List<Callable<Object>> tasks = new ArrayList<>();
+            for(Spec spec : specs){
+                tasks.add(Executors.callable(() -> {
+                    long specStart = System.currentTimeMillis();
+                    try {
+                        spec.error = generate(spec.file, spec.params);
+                    } catch (RuntimeException ex) {
+                        spec.error = ex.toString();
+                    }
+                    spec.millis = System.currentTimeMillis() - specStart;
+                }));
+            }
+            executor.invokeAll(tasks);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return CommandResult.error("Interrupted");
+        } finally {
+            executor.shutdownNow();
+        }
+        int failed = 0;
+        for(Spec spec : specs){
+            if(spec.error != null)
+                failed++;
+            System.out.println((spec.error == null ? "OK   " : "FAIL ")+spec.file.getPath()+" ("+spec.millis+"ms)"+(spec.error != null ? ": "+spec.error : ""));
+        }
+        System.out.println("Generated "+(specs.size() - failed)+" of "+specs.size()+" clients in "+(System.currentTimeMillis() - start)+"ms");
+        if(failed > 0)
+            return CommandResult.error(failed+" of "+specs.size()+" specs failed");
+        return CommandResult.success();
+    }
 
+    private static List<Spec> readManifest(File manifest, Map<String, List<String>> params) throws IOException {
+        File folder = manifest.getAbsoluteFile().getParentFile();
+        List<Spec> specs = new ArrayList<>();
+        for(String line : Files.readAllLines(manifest.toPath(), StandardCharsets.UTF_8)){
+            line = line.trim();
+            if(line.isEmpty() || line.startsWith("#"))
+                continue;
+            String[] tokens = line.split("\\s+");
+            Map<String, List<String>> overrides = new HashMap<>();
+            List<String> values = null;
+            for(int i = 1; i < tokens.length; i++){
+                if(tokens[i].startsWith("--")){
+                    values = new ArrayList<>();
+                    overrides.put(tokens[i].substring(2), values);
+                } else if(values != null) {
+                    values.add(tokens[i]);
+                } else {
+                    throw new IOException("Unexpected value '"+tokens[i]+"' in line '"+line+"'");
+                }
+            }
+            for(String name : Arrays.asList("out", "snippet")){
+                if(overrides.containsKey(name))
+                    overrides.put(name, overrides.get(name).stream().map(v -> resolve(folder, v).getPath()).collect(Collectors.toList()));
+            }
+            File file = resolve(folder, tokens[0]);
+            specs.add(new Spec(file, getBatchParams(file, params, overrides)));
+        }
+        return specs;
+    }
+
+    private static Map<String, List<String>> getBatchParams(File file, Map<String, List<String>> params, Map<String, List<String>> overrides) {
+        Map<String, List<String>> specParams = new HashMap<>(params);
+        specParams.remove("manifest");
+        specParams.remove("jobs");
+        specParams.putAll(overrides);
+        String name = file.getName();
+        if(name.lastIndexOf('.') > 0)
+            name = name.substring(0, name.lastIndexOf('.'));
+        if(!overrides.containsKey("out")){
+            String format = specParams.containsKey("out-format") ? specParams.get("out-format").get(0) : "dir";
+            String parent = params.containsKey("out") ? params.get("out").get(0) : null;
+            if(format.equals("dir")) {
+                specParams.put("out", Collections.singletonList(parent != null ? new File(parent, name).getPath() : name));
+            } else if(parent != null) {
+                specParams.put("out", Collections.singletonList(new File(parent, name+"."+format).getPath()));
+            } else {
+                specParams.remove("out");
+            }
+        }
+        if(!overrides.containsKey("profile") && params.containsKey("profile") && params.get("profile").size() > 0){
+            File profileFile = new File(params.get("profile").get(0));
+            specParams.put("profile", Collections.singletonList(new File(profileFile.getAbsoluteFile().getParentFile(), name+"-"+profileFile.getName()).getPath()));
+        }
+        return specParams;
+    }
+
+    private static String getDefaultArchive(File file, Map<String, List<String>> params) {
+        String format = params.containsKey("out-format") ? params.get("out-format").get(0) : "dir";
+        if(!format.equals("zip") && !format.equals("jar"))
+            return null;
+        if(params.containsKey("artifact-id"))
+            return params.get("artifact-id").get(0)+"."+format;
+        OpenAPI api;
+        try {
+            api = OpenAPI.fromFile(file);
+        } catch (RuntimeException ex) {
+            return null;
+        }
+        return api != null ? new JavaClientGenerator(api).getArtifactId()+"."+format : null;
+    }
+
+    private static File resolve(File folder, String path) {
+        File file = new File(path);
+        return file.isAbsolute() ? file : new File(folder, path);
+    }
+
+    private String generate(File file, Map<String, List<String>> params) {
+        GeneratorProfile profile = params.containsKey("profile") ? new GeneratorProfile() : null;
+        String out = params.containsKey("out") ? params.get("out").get(0) : null;
+        String format = params.containsKey("out-format") ? params.get("out-format").get(0) : "dir";
+        if(!OUTPUT_FORMATS.contains(format))
+            return "Unknown output format '"+format+"'";
+        if(format.equals("jar") && !params.containsKey("classpath")){
+            String missing = getMissingClientDependency(params.containsKey("transport"));
+            if(missing != null)
+                return "Compiling the jar requires "+missing+" which isn't on the generator classpath, pass the client dependencies with --classpath";
+        }
+        List<File> snippetFiles = new ArrayList<>();
         if(params.containsKey("snippet")){
             for(String name : params.get("snippet")){
                 File snippetFile = new File(name);
                 if(!snippetFile.exists())
-                    return CommandResult.error("Snippet '"+name+"' not found");
-                clientGenerator.getSnippet().addAll(readFile(snippetFile));
+                    return "Snippet '"+name+"' not found";
+                snippetFiles.add(snippetFile);
             }
         }
+
+        OutputCache cache = null;
+        String cacheKey = null;
+        if(params.containsKey("spec-cache")){
+            cache = new OutputCache(params.get("spec-cache").size() > 0 ? new File(params.get("spec-cache").get(0)) : new File(System.getProperty("user.home"), ".openapi-client-generator"));
+            List<File> inputs = new ArrayList<>();
+            inputs.add(file);
+            inputs.addAll(snippetFiles);
+            Map<String, List<String>> options = new HashMap<>(params);
+            options.keySet().removeAll(UNCACHED_PARAMS);
+            try {
+                cacheKey = OutputCache.key(getGeneratorVersion(), inputs, options);
+            } catch (IOException ex) {
+                return "The spec file isn't readable";
+            }
+            Properties meta = cache.lookup(cacheKey);
+            if(meta != null){
+                OutputSink sink;
+                try {
+                    sink = openSink(format, out, meta.getProperty("artifactId"), params);
+                } catch (IOException ex) {
+                    return "Failed to open the output: "+ex.getMessage();
+                }
+                OutputCache replayCache = cache;
+                String replayKey = cacheKey;
+                boolean replayed = false;
+                try {
+                    if(profile != null) {
+                        OutputSink target = profile.wrap(sink);
+                        profile.measure("replay", () -> replayCache.replay(replayKey, target));
+                    } else {
+                        cache.replay(cacheKey, sink);
+                    }
+                    replayed = true;
+                } catch (IOException | UncheckedIOException ex) {
+                    return "Failed to write the output: "+ex.getMessage();
+                } finally {
+                    if(!replayed)
+                        abort(sink);
+                }
+                return finish(sink, profile, params);
+            }
+        }
+
+        OpenAPI api = profile != null ? profile.measure("parse", () -> OpenAPI.fromFile(file)) : OpenAPI.fromFile(file);
+        if(api == null)
+            return "The spec file isn't readable";
+        JavaClientGenerator clientGenerator = new JavaClientGenerator(api);
+        clientGenerator.setProfile(profile);
+
+        for(File snippetFile : snippetFiles)
+            clientGenerator.getSnippet().addAll(readFile(snippetFile));
         if(params.containsKey("s"))
             clientGenerator.setJustSource(true);
         if(params.containsKey("artifact-id"))
@@ -47,13 +299,209 @@ public class JavaCommand implements Command {
             clientGenerator.setBasePackage(params.get("package").get(0));
         if(params.containsKey("api-name"))
             clientGenerator.setApiName(params.get("api-name").get(0));
+        if(params.containsKey("codecs"))
+            clientGenerator.setCodecs(true);
+        if(params.containsKey("streaming"))
+            clientGenerator.setStreaming(true);
+        if(params.containsKey("paginate")){
+            clientGenerator.setPagination(true);
+            if(params.get("paginate").size() > 0){
+                clientGenerator.getPageParameters().clear();
+                clientGenerator.getPageParameters().addAll(params.get("paginate"));
+            }
+        }
+        if(params.containsKey("cache"))
+            clientGenerator.setCache(true);
+        if(params.containsKey("single-flight"))
+            clientGenerator.setSingleFlight(true);
+        if(params.containsKey("metrics"))
+            clientGenerator.setMetrics(true);
+        if(params.containsKey("dedupe-schemas"))
+            clientGenerator.setDedupeSchemas(true);
+        if(params.containsKey("lazy-tags"))
+            clientGenerator.setLazyTags(true);
+        if(params.containsKey("primitives"))
+            clientGenerator.setPrimitives(true);
+        if(params.containsKey("resilience"))
+            clientGenerator.setResilience(true);
+        if(params.containsKey("transport"))
+            clientGenerator.setTransport(true);
+        if(params.containsKey("compression"))
+            clientGenerator.setCompression(true);
+        if(params.containsKey("async"))
+            clientGenerator.setAsync(true);
+        if(params.containsKey("threads")){
+            try {
+                clientGenerator.setThreads(Integer.parseInt(params.get("threads").get(0)));
+            } catch (NumberFormatException ex) {
+                return "Invalid thread count '"+params.get("threads").get(0)+"'";
+            }
+        }
 
-        File targetFolder = new File("");
-        if(params.containsKey("out"))
-            targetFolder = new File(params.get("out").get(0));
+        if(format.equals("jar"))
+            clientGenerator.setJustSource(true);
+        OutputSink sink;
+        try {
+            sink = openSink(format, out, clientGenerator.getArtifactId(), params);
+        } catch (IOException ex) {
+            return "Failed to open the output: "+ex.getMessage();
+        }
+        if(cache != null){
+            Properties meta = new Properties();
+            meta.setProperty("artifactId", clientGenerator.getArtifactId());
+            sink = cache.record(cacheKey, meta, sink);
+        }
 
-        clientGenerator.generate(targetFolder);
-        return CommandResult.success();
+        boolean generated = false;
+        try {
+            clientGenerator.generate(sink);
+            generated = true;
+        } catch (UncheckedIOException ex) {
+            return "Failed to write the output: "+ex.getMessage();
+        } finally {
+            if(!generated)
+                abort(sink);
+        }
+        return finish(sink, profile, params);
+    }
+
+    private OutputSink openSink(String format, String out, String artifactId, Map<String, List<String>> params) throws IOException {
+        if(!format.equals("dir") && out != null && !out.equals("-")){
+            File parent = new File(out).getAbsoluteFile().getParentFile();
+            if(!parent.exists())
+                parent.mkdirs();
+        }
+        switch (format) {
+            case "zip":
+                if(out == null)
+                    out = artifactId+".zip";
+                return out.equals("-") ? new ZipOutputSink(System.out) : new ZipOutputSink(new File(out));
+            case "jar":
+                if(out == null)
+                    out = artifactId+".jar";
+                return new JarOutputSink(new File(out), params.containsKey("classpath") ? params.get("classpath").get(0) : System.getProperty("java.class.path"), params.containsKey("transport") ? 11 : 8);
+            default:
+                return new DirectoryOutputSink(new File(out != null ? out : ""), params.containsKey("incremental") || params.containsKey("watch"));
+        }
+    }
+
+    private static String getMissingClientDependency(boolean transport) {
+        Map<String, String> dependencies = new LinkedHashMap<>();
+        dependencies.put("com.google.gson.Gson", "Gson");
+        if(!transport)
+            dependencies.put("org.javawebstack.httpclient.HTTPClient", "the javawebstack HTTP-Client");
+        for(Map.Entry<String, String> dependency : dependencies.entrySet()){
+            try {
+                Class.forName(dependency.getKey(), false, JavaCommand.class.getClassLoader());
+            } catch (ClassNotFoundException | LinkageError ex) {
+                return dependency.getValue();
+            }
+        }
+        return null;
+    }
+
+    private String finish(OutputSink sink, GeneratorProfile profile, Map<String, List<String>> params) {
+        try {
+            if(profile != null) {
+                profile.measure("close", () -> {
+                    sink.close();
+                    return null;
+                });
+            } else {
+                sink.close();
+            }
+        } catch (IOException | UncheckedIOException ex) {
+            return "Failed to write the output: "+ex.getMessage();
+        }
+        if(profile != null){
+            profile.finish();
+            System.err.print(profile.toSummary());
+            if(params.get("profile").size() > 0){
+                try {
+                    Files.write(new File(params.get("profile").get(0)).toPath(), profile.toJson().getBytes(StandardCharsets.UTF_8));
+                } catch (IOException ex) {
+                    return "Failed to write the profile: "+ex.getMessage();
+                }
+            }
+        }
+        if(sink instanceof DirectoryOutputSink && ((DirectoryOutputSink) sink).isIncremental()){
+            DirectoryOutputSink directorySink = (DirectoryOutputSink) sink;
+            System.out.println("Written: "+directorySink.getWrittenFiles()+", Skipped: "+directorySink.getSkippedFiles()+", Removed: "+directorySink.getRemovedFiles());
+        }
+        return null;
+    }
+
+    private static void abort(OutputSink sink) {
+        try {
+            sink.abort();
+        } catch (IOException ignored) {}
+    }
+
+    private CommandResult watch(File file, Map<String, List<String>> params) {
+        List<Path> watchedFiles = new ArrayList<>();
+        watchedFiles.add(file.getAbsoluteFile().toPath());
+        if(params.containsKey("snippet"))
+            params.get("snippet").forEach(name -> watchedFiles.add(new File(name).getAbsoluteFile().toPath()));
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            for(Path folder : watchedFiles.stream().map(Path::getParent).distinct().collect(Collectors.toList()))
+                folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            System.out.println("Watching for changes ...");
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                // Editors often emit several events per save, collect them before regenerating
+                while (key != null) {
+                    Path folder = (Path) key.watchable();
+                    for(WatchEvent<?> event : key.pollEvents()){
+                        if(event.kind() == StandardWatchEventKinds.OVERFLOW || watchedFiles.contains(folder.resolve((Path) event.context())))
+                            changed = true;
+                    }
+                    key.reset();
+                    key = watchService.poll(50, TimeUnit.MILLISECONDS);
+                }
+                if(!changed)
+                    continue;
+                long start = System.currentTimeMillis();
+                String error;
+                try {
+                    error = generate(file, params);
+                } catch (RuntimeException ex) {
+                    error = ex.toString();
+                }
+                if(error != null) {
+                    System.out.println("Error: "+error);
+                } else {
+                    System.out.println("Regenerated in "+(System.currentTimeMillis() - start)+"ms");
+                }
+            }
+        } catch (IOException ex) {
+            return CommandResult.error("Failed to watch the spec file: "+ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return CommandResult.success();
+        }
+    }
+
+    private static String getGeneratorVersion() {
+        String version = String.valueOf(JavaClientGenerator.class.getPackage().getImplementationVersion());
+        try {
+            File location = new File(JavaClientGenerator.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            if(!location.isDirectory())
+                return version+":"+location.length()+":"+location.lastModified();
+            File[] templates = new File(location, JavaClientGenerator.class.getPackage().getName().replace('.', '/')+"/templates").listFiles();
+            location = new File(location, JavaClientGenerator.class.getName().replace('.', '/')+".class");
+            long length = location.length();
+            long lastModified = location.lastModified();
+            if(templates != null){
+                for(File template : templates){
+                    length += template.length();
+                    lastModified = Math.max(lastModified, template.lastModified());
+                }
+            }
+            return version+":"+length+":"+lastModified;
+        } catch (URISyntaxException | SecurityException | NullPointerException ex) {
+            return version;
+        }
     }
 
     private static List<String> readFile(File file){
@@ -71,4 +519,18 @@ public class JavaCommand implements Command {
         }
     }
 
+    private static class Spec {
+
+        private final File file;
+        private final Map<String, List<String>> params;
+        private volatile String error;
+        private volatile long millis;
+
+        Spec(File file, Map<String, List<String>> params) {
+            this.file = file;
+            this.params = params;
+        }
+
+    }
+
 }
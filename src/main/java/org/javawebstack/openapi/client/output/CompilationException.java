@@ -0,0 +1,19 @@
+package org.javawebstack.openapi.client.output;
+
+import java.io.IOException;
+import java.util.List;
+
+public class CompilationException extends IOException {
+
+    private final List<String> errors;
+
+    public CompilationException(List<String> errors) {
+        super("Compilation of the generated sources failed:\n" + String.join("\n", errors));
+        this.errors = errors;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+}
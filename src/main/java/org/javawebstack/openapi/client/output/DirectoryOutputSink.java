@@ -0,0 +1,229 @@
+package org.javawebstack.openapi.client.output;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DirectoryOutputSink implements OutputSink {
+
+    private static final String MANIFEST_FILE = ".openapi-client-manifest";
+
+    private final File folder;
+    private final boolean incremental;
+    private final Map<String, String> previousManifest;
+    private final Map<String, String> manifest = new ConcurrentHashMap<>();
+    private final Set<String> generatedFiles = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger writtenFiles = new AtomicInteger();
+    private final AtomicInteger skippedFiles = new AtomicInteger();
+    private final AtomicInteger removedFiles = new AtomicInteger();
+
+    public DirectoryOutputSink(File folder) {
+        this(folder, false);
+    }
+
+    public DirectoryOutputSink(File folder, boolean incremental) {
+        this.folder = folder;
+        this.incremental = incremental;
+        this.previousManifest = incremental ? readManifest() : new HashMap<>();
+        manifest.putAll(previousManifest);
+    }
+
+    public Writer open(String path) throws IOException {
+        File file = new File(folder, path);
+        generatedFiles.add(path);
+        if(!file.getParentFile().exists())
+            file.getParentFile().mkdirs();
+        if(!incremental){
+            writtenFiles.incrementAndGet();
+            return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+        }
+        MessageDigest digest = digest();
+        ComparingOutputStream stream = new ComparingOutputStream(file);
+        return new BufferedWriter(new OutputStreamWriter(new DigestOutputStream(stream, digest), StandardCharsets.UTF_8)) {
+            private boolean closed;
+            public void close() throws IOException {
+                if(closed)
+                    return;
+                closed = true;
+                super.close();
+                manifest.put(path, hex(digest.digest()));
+                if(stream.isChanged()){
+                    writtenFiles.incrementAndGet();
+                }else{
+                    skippedFiles.incrementAndGet();
+                }
+            }
+        };
+    }
+
+    public void close() throws IOException {
+        if(!incremental)
+            return;
+        previousManifest.keySet().stream().filter(p -> !generatedFiles.contains(p)).forEach(path -> {
+            manifest.remove(path);
+            File file = new File(folder, path);
+            if(file.exists() && file.delete())
+                removedFiles.incrementAndGet();
+        });
+        if(manifest.equals(previousManifest))
+            return;
+        StringBuilder sb = new StringBuilder();
+        new TreeMap<>(manifest).forEach((path, hash) -> sb.append(hash).append(' ').append(path).append('\n'));
+        Files.write(new File(folder, MANIFEST_FILE).toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void abort() {}
+
+    private Map<String, String> readManifest(){
+        Map<String, String> hashes = new HashMap<>();
+        File file = new File(folder, MANIFEST_FILE);
+        if(!file.exists())
+            return hashes;
+        try {
+            for(String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)){
+                int split = line.indexOf(' ');
+                if(split > 0)
+                    hashes.put(line.substring(split + 1), line.substring(0, split));
+            }
+        } catch (IOException ignored) {}
+        return hashes;
+    }
+
+    private static MessageDigest digest(){
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String hex(byte[] digest){
+        StringBuilder sb = new StringBuilder();
+        for(byte b : digest)
+            sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
+
+    // Compares the written bytes against the existing file and only starts a temp file at the first difference,
+    // so regenerating an unchanged file neither writes nor touches it
+    private static class ComparingOutputStream extends OutputStream {
+
+        private final File file;
+        private final File temp;
+        private InputStream existing;
+        private OutputStream target;
+        private long matched;
+        private boolean changed;
+        private byte[] buffer = new byte[0];
+
+        ComparingOutputStream(File file) throws IOException {
+            this.file = file;
+            this.temp = new File(file.getParentFile(), "." + file.getName() + ".tmp");
+            if(file.isFile()){
+                existing = new BufferedInputStream(new FileInputStream(file));
+            }else{
+                diverge();
+            }
+        }
+
+        public void write(int b) throws IOException {
+            write(new byte[]{ (byte) b }, 0, 1);
+        }
+
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if(target == null){
+                if(buffer.length < length)
+                    buffer = new byte[length];
+                int read = 0;
+                while (read < length){
+                    int r = existing.read(buffer, read, length - read);
+                    if(r == -1)
+                        break;
+                    read += r;
+                }
+                int same = 0;
+                while (same < read && buffer[same] == bytes[offset + same])
+                    same++;
+                matched += same;
+                if(same == length)
+                    return;
+                diverge();
+                offset += same;
+                length -= same;
+            }
+            target.write(bytes, offset, length);
+        }
+
+        public void flush() throws IOException {
+            if(target != null)
+                target.flush();
+        }
+
+        public void close() throws IOException {
+            if(target == null){
+                boolean exhausted = existing.read() == -1;
+                existing.close();
+                existing = null;
+                if(exhausted)
+                    return;
+                diverge();
+            }
+            target.close();
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        boolean isChanged() {
+            return changed;
+        }
+
+        private void diverge() throws IOException {
+            changed = true;
+            if(existing != null){
+                existing.close();
+                existing = null;
+            }
+            target = new BufferedOutputStream(new FileOutputStream(temp));
+            if(matched == 0)
+                return;
+            try (InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
+                byte[] copy = new byte[8192];
+                long remaining = matched;
+                while (remaining > 0){
+                    int r = stream.read(copy, 0, (int) Math.min(copy.length, remaining));
+                    if(r == -1)
+                        throw new EOFException(file.getPath());
+                    target.write(copy, 0, r);
+                    remaining -= r;
+                }
+            }
+        }
+
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public int getWrittenFiles() {
+        return writtenFiles.get();
+    }
+
+    public int getSkippedFiles() {
+        return skippedFiles.get();
+    }
+
+    public int getRemovedFiles() {
+        return removedFiles.get();
+    }
+
+}
@@ -0,0 +1,155 @@
+package org.javawebstack.openapi.client.output;
+
+import javax.tools.*;
+import java.io.*;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class JarOutputSink implements OutputSink {
+
+    private static final Pattern OPERATION_PATTERN = Pattern.compile("^    public [\\w.<>\\[\\], ?]+ (\\w+)\\(.*\\)( throws [\\w., ]+)? \\{$");
+
+    private final File file;
+    private final String classPath;
+    private final int release;
+    private final Map<String, String> sources = new ConcurrentHashMap<>();
+
+    public JarOutputSink(File file, String classPath) {
+        this(file, classPath, 8);
+    }
+
+    public JarOutputSink(File file, String classPath, int release) {
+        this.file = file;
+        this.classPath = classPath;
+        this.release = release;
+    }
+
+    public Writer open(String path) {
+        return new StringWriter() {
+            public void close() {
+                JarOutputSink.this.write(path, toString());
+            }
+        };
+    }
+
+    public void write(String path, String content) {
+        if(path.endsWith(".java"))
+            sources.put(path, content);
+    }
+
+    public void close() throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if(compiler == null)
+            throw new IOException("No java compiler available, make sure to run the generator on a JDK");
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        MemoryFileManager fileManager = new MemoryFileManager(compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8));
+        List<SourceFile> compilationUnits = new ArrayList<>();
+        new TreeMap<>(sources).forEach((path, content) -> compilationUnits.add(new SourceFile(path, content)));
+        List<String> options = new ArrayList<>();
+        options.add("-nowarn");
+        // javac 8 has no --release, it can only target its own platform anyway
+        if(compiler.isSupportedOption("--release") >= 0){
+            options.add("--release");
+            options.add(String.valueOf(release));
+        }
+        if(classPath != null){
+            options.add("-classpath");
+            options.add(classPath);
+        }
+        boolean success = compiler.getTask(null, fileManager, diagnostics, options, null, compilationUnits).call();
+        if(!success){
+            List<String> errors = new ArrayList<>();
+            for(Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()){
+                if(diagnostic.getKind() != Diagnostic.Kind.ERROR)
+                    continue;
+                String origin = "";
+                if(diagnostic.getSource() instanceof SourceFile)
+                    origin = ((SourceFile) diagnostic.getSource()).getOrigin(diagnostic.getLineNumber()) + ": ";
+                errors.add(origin + diagnostic.getMessage(Locale.ENGLISH));
+            }
+            throw new CompilationException(errors);
+        }
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        try (JarOutputStream stream = new JarOutputStream(new BufferedOutputStream(new FileOutputStream(file)), manifest)) {
+            for(Map.Entry<String, ByteArrayOutputStream> entry : fileManager.classes.entrySet()){
+                stream.putNextEntry(new JarEntry(entry.getKey().replace('.', '/') + ".class"));
+                entry.getValue().writeTo(stream);
+                stream.closeEntry();
+            }
+        }
+    }
+
+    public void abort() {
+        sources.clear();
+    }
+
+    private static class SourceFile extends SimpleJavaFileObject {
+
+        private final String path;
+        private final String content;
+
+        SourceFile(String path, String content) {
+            super(URI.create("string:///" + path), Kind.SOURCE);
+            this.path = path;
+            this.content = content;
+        }
+
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return content;
+        }
+
+        String getOrigin(long lineNumber) {
+            String[] segments = path.substring(0, path.length() - 5).split("/");
+            String name = segments[segments.length - 1];
+            String type = segments.length > 1 ? segments[segments.length - 2] : "";
+            switch (type) {
+                case "schemas":
+                    return "Schema '" + name + "'";
+                case "responses":
+                    return "Response '" + name + "'";
+                case "tags": {
+                    String[] lines = content.split("\n");
+                    for(int i = (int) Math.min(lineNumber, lines.length) - 1; i >= 0; i--){
+                        Matcher matcher = OPERATION_PATTERN.matcher(lines[i]);
+                        if(matcher.matches())
+                            return "Operation '" + matcher.group(1) + "'";
+                    }
+                    return "Tag '" + name + "'";
+                }
+                default:
+                    return path + ":" + lineNumber;
+            }
+        }
+
+    }
+
+    private static class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+        private final Map<String, ByteArrayOutputStream> classes = new TreeMap<>();
+
+        MemoryFileManager(StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+            return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+                public OutputStream openOutputStream() {
+                    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+                    classes.put(className, stream);
+                    return stream;
+                }
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,28 @@
+package org.javawebstack.openapi.client.output;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class MemoryOutputSink implements OutputSink {
+
+    private final Map<String, String> files = new ConcurrentHashMap<>();
+
+    public Writer open(String path) {
+        return new StringWriter() {
+            public void close() {
+                files.put(path, toString());
+            }
+        };
+    }
+
+    public void write(String path, String content) {
+        files.put(path, content);
+    }
+
+    public Map<String, String> getFiles() {
+        return files;
+    }
+
+}
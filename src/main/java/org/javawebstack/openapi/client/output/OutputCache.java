@@ -0,0 +1,216 @@
+package org.javawebstack.openapi.client.output;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class OutputCache {
+
+    private static final String FILES_FOLDER = "files";
+    private static final String META_FILE = "meta.properties";
+    private static final String TEMP_MARKER = ".tmp-";
+    private static final long TEMP_MAX_AGE = 60 * 60 * 1000;
+
+    private final File folder;
+    private final int maxEntries;
+
+    public OutputCache(File folder) {
+        this(folder, 256);
+    }
+
+    public OutputCache(File folder, int maxEntries) {
+        this.folder = folder;
+        this.maxEntries = maxEntries;
+    }
+
+    public static String key(String version, List<File> files, Map<String, List<String>> options) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        update(digest, version);
+        for(File file : files){
+            update(digest, file.getName());
+            byte[] buffer = new byte[8192];
+            try (InputStream stream = new FileInputStream(file)) {
+                int r;
+                while ((r = stream.read(buffer)) != -1)
+                    digest.update(buffer, 0, r);
+            }
+        }
+        new TreeMap<>(options).forEach((name, values) -> {
+            update(digest, name);
+            values.forEach(value -> update(digest, value));
+        });
+        StringBuilder sb = new StringBuilder();
+        for(byte b : digest.digest())
+            sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
+
+    public Properties lookup(String key) {
+        File entry = new File(folder, key);
+        File meta = new File(entry, META_FILE);
+        if(!meta.isFile())
+            return null;
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(meta.toPath(), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            return null;
+        }
+        entry.setLastModified(System.currentTimeMillis());
+        return properties;
+    }
+
+    public int replay(String key, OutputSink sink) throws IOException {
+        Path files = new File(new File(folder, key), FILES_FOLDER).toPath();
+        List<Path> paths;
+        try (Stream<Path> stream = Files.walk(files)) {
+            paths = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        char[] buffer = new char[8192];
+        for(Path path : paths){
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8); Writer writer = sink.open(files.relativize(path).toString().replace(File.separatorChar, '/'))) {
+                int r;
+                while ((r = reader.read(buffer)) != -1)
+                    writer.write(buffer, 0, r);
+            }
+        }
+        return paths.size();
+    }
+
+    public OutputSink record(String key, Properties meta, OutputSink sink) {
+        return new RecordingOutputSink(key, meta, sink);
+    }
+
+    private void evict() {
+        File[] entries = folder.listFiles(File::isDirectory);
+        if(entries == null)
+            return;
+        long now = System.currentTimeMillis();
+        List<File> complete = new ArrayList<>();
+        for(File entry : entries){
+            if(entry.getName().contains(TEMP_MARKER)){
+                if(now - entry.lastModified() > TEMP_MAX_AGE)
+                    delete(entry);
+            }else{
+                complete.add(entry);
+            }
+        }
+        complete.sort(Comparator.comparingLong(File::lastModified).reversed());
+        for(int i = maxEntries; i < complete.size(); i++)
+            delete(complete.get(i));
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if(children != null){
+            for(File child : children)
+                delete(child);
+        }
+        file.delete();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >> 24));
+        digest.update((byte) (bytes.length >> 16));
+        digest.update((byte) (bytes.length >> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private class RecordingOutputSink implements OutputSink {
+
+        private final String key;
+        private final Properties meta;
+        private final OutputSink sink;
+        private final File temp;
+
+        RecordingOutputSink(String key, Properties meta, OutputSink sink) {
+            this.key = key;
+            this.meta = meta;
+            this.sink = sink;
+            this.temp = new File(folder, key + TEMP_MARKER + UUID.randomUUID());
+        }
+
+        public Writer open(String path) throws IOException {
+            File file = new File(new File(temp, FILES_FOLDER), path);
+            if(!file.getParentFile().exists())
+                file.getParentFile().mkdirs();
+            Writer copy = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+            Writer target;
+            try {
+                target = sink.open(path);
+            } catch (IOException exception) {
+                copy.close();
+                throw exception;
+            }
+            return new Writer() {
+                public void write(char[] buffer, int offset, int length) throws IOException {
+                    target.write(buffer, offset, length);
+                    copy.write(buffer, offset, length);
+                }
+                public void write(String value, int offset, int length) throws IOException {
+                    target.write(value, offset, length);
+                    copy.write(value, offset, length);
+                }
+                public void flush() throws IOException {
+                    target.flush();
+                    copy.flush();
+                }
+                public void close() throws IOException {
+                    try {
+                        target.close();
+                    } finally {
+                        copy.close();
+                    }
+                }
+            };
+        }
+
+        public void close() throws IOException {
+            try {
+                sink.close();
+                temp.mkdirs();
+                try (Writer writer = Files.newBufferedWriter(new File(temp, META_FILE).toPath(), StandardCharsets.UTF_8)) {
+                    meta.store(writer, null);
+                }
+            } catch (IOException | RuntimeException exception) {
+                delete(temp);
+                throw exception;
+            }
+            File entry = new File(folder, key);
+            if(entry.exists()){
+                delete(temp);
+            }else{
+                try {
+                    Files.move(temp.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException exception) {
+                    delete(temp);
+                }
+            }
+            evict();
+        }
+
+        public void abort() throws IOException {
+            try {
+                sink.abort();
+            } finally {
+                delete(temp);
+            }
+        }
+
+    }
+
+}
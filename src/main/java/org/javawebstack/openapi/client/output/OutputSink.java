@@ -0,0 +1,23 @@
+package org.javawebstack.openapi.client.output;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+public interface OutputSink extends Closeable {
+
+    Writer open(String path) throws IOException;
+
+    default void write(String path, String content) throws IOException {
+        try (Writer writer = open(path)) {
+            writer.write(content);
+        }
+    }
+
+    default void close() throws IOException {}
+
+    default void abort() throws IOException {
+        close();
+    }
+
+}
@@ -0,0 +1,50 @@
+package org.javawebstack.openapi.client.output;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+public class SourceWriter implements Closeable {
+
+    private final Writer writer;
+
+    public SourceWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public SourceWriter append(CharSequence value) {
+        try {
+            writer.append(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    public SourceWriter append(char value) {
+        try {
+            writer.write(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    public SourceWriter append(int value) {
+        return append(String.valueOf(value));
+    }
+
+    public SourceWriter append(Object value) {
+        return append(String.valueOf(value));
+    }
+
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+package org.javawebstack.openapi.client.output;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class ZipOutputSink implements OutputSink {
+
+    private static final long ENTRY_TIME = LocalDateTime.of(2000, 1, 1, 0, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+    private final OutputStream stream;
+    private final File file;
+    private final Map<String, File> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger entryCount = new AtomicInteger();
+    private File folder;
+
+    public ZipOutputSink(File file) throws IOException {
+        this(new FileOutputStream(file), file);
+    }
+
+    public ZipOutputSink(OutputStream stream) {
+        this(stream, null);
+    }
+
+    private ZipOutputSink(OutputStream stream, File file) {
+        this.stream = stream;
+        this.file = file;
+    }
+
+    public Writer open(String path) throws IOException {
+        // Entries are spilled to disk instead of being held in memory until the archive is written on close
+        File folder = getFolder();
+        File entry = entries.computeIfAbsent(path, p -> new File(folder, entryCount.incrementAndGet() + ".tmp"));
+        return new OutputStreamWriter(new BufferedOutputStream(new FileOutputStream(entry)), StandardCharsets.UTF_8);
+    }
+
+    public void close() throws IOException {
+        try {
+            ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(stream));
+            // Entries arrive in completion order with --threads, sort them so the archive is reproducible
+            for(Map.Entry<String, File> entry : new TreeMap<>(entries).entrySet()){
+                ZipEntry zipEntry = new ZipEntry(entry.getKey());
+                zipEntry.setTime(ENTRY_TIME);
+                zip.putNextEntry(zipEntry);
+                Files.copy(entry.getValue().toPath(), zip);
+                zip.closeEntry();
+            }
+            zip.finish();
+            zip.flush();
+        } finally {
+            clear();
+            if(file != null)
+                stream.close();
+        }
+    }
+
+    public void abort() throws IOException {
+        clear();
+        if(file != null){
+            stream.close();
+            file.delete();
+        }
+    }
+
+    private synchronized File getFolder() throws IOException {
+        if(folder == null)
+            folder = Files.createTempDirectory("zip-output").toFile();
+        return folder;
+    }
+
+    private synchronized void clear() {
+        entries.values().forEach(File::delete);
+        entries.clear();
+        if(folder != null){
+            folder.delete();
+            folder = null;
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+package {{package}};
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public class {{api}}Cache {
+
+    private final int maxEntries;
+    private final Map<String, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public {{api}}Cache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<String, {{api}}Cache.Entry> eldest) {
+                if(size() <= {{api}}Cache.this.maxEntries)
+                    return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    public synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    public void put(String key, String etag, String cacheControl, Object value) {
+        long maxAge = maxAge(cacheControl);
+        if(maxAge < 0 || (etag == null && maxAge == 0))
+            return;
+        Entry entry = new Entry(etag, System.currentTimeMillis() + maxAge * 1000, value);
+        synchronized (this) {
+            entries.put(key, entry);
+        }
+    }
+
+    public void revalidated(String key, Entry entry, String cacheControl) {
+        hits.increment();
+        revalidations.increment();
+        long maxAge = maxAge(cacheControl);
+        if(maxAge < 0) {
+            invalidate(key);
+            return;
+        }
+        entry.expiresAt = System.currentTimeMillis() + maxAge * 1000;
+    }
+
+    public synchronized void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    void hit() {
+        hits.increment();
+    }
+
+    void miss() {
+        misses.increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getRevalidations() {
+        return revalidations.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private static long maxAge(String cacheControl) {
+        if(cacheControl == null)
+            return 0;
+        long maxAge = 0;
+        for(String directive : cacheControl.toLowerCase().split(",")) {
+            directive = directive.trim();
+            if(directive.equals("no-store") || directive.equals("private"))
+                return -1;
+            if(directive.equals("no-cache"))
+                return 0;
+            if(directive.startsWith("max-age=")) {
+                try {
+                    maxAge = Long.parseLong(directive.substring(8).trim());
+                } catch (NumberFormatException ignored) {}
+            }
+        }
+        return maxAge;
+    }
+
+    public static class Entry {
+
+        private final String etag;
+        private final Object value;
+        private volatile long expiresAt;
+
+        Entry(String etag, long expiresAt, Object value) {
+            this.etag = etag;
+            this.expiresAt = expiresAt;
+            this.value = value;
+        }
+
+        public String getETag() {
+            return etag;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public boolean isFresh() {
+            return System.currentTimeMillis() < expiresAt;
+        }
+
+    }
+
+}
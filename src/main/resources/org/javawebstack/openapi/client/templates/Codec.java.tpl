@@ -0,0 +1,298 @@
+package {{package}};
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+{{#primitives}}
+import java.util.Arrays;
+{{/primitives}}
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+public final class {{api}}Codec {
+
+    public interface Reader<T> {
+        T read(JsonReader reader) throws IOException;
+    }
+
+    public interface Writer<T> {
+        void write(T value, JsonWriter writer) throws IOException;
+    }
+
+    private static final Gson GSON = new Gson();
+
+    private {{api}}Codec() {}
+
+    public static <T> T decode(byte[] bytes, Reader<T> reader) throws IOException {
+        return decode(new ByteArrayInputStream(bytes), reader);
+    }
+
+    public static <T> T decode(InputStream stream, Reader<T> reader) throws IOException {
+        try (JsonReader jsonReader = new JsonReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            jsonReader.setLenient(true);
+            return reader.read(jsonReader);
+        }
+    }
+
+    public static <T> byte[] encode(T value, Writer<T> writer) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (JsonWriter jsonWriter = new JsonWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8))) {
+            if(value == null) {
+                jsonWriter.nullValue();
+            } else {
+                writer.write(value, jsonWriter);
+            }
+        }
+        return stream.toByteArray();
+    }
+
+    public static boolean isNull(JsonReader reader) throws IOException {
+        if(reader.peek() != JsonToken.NULL)
+            return false;
+        reader.nextNull();
+        return true;
+    }
+
+    public static String readString(JsonReader reader) throws IOException {
+        return isNull(reader) ? null : reader.nextString();
+    }
+
+    public static Integer readInteger(JsonReader reader) throws IOException {
+        return isNull(reader) ? null : reader.nextInt();
+    }
+
+    public static Long readLong(JsonReader reader) throws IOException {
+        return isNull(reader) ? null : reader.nextLong();
+    }
+
+    public static Float readFloat(JsonReader reader) throws IOException {
+        return isNull(reader) ? null : (float) reader.nextDouble();
+    }
+
+    public static Double readDouble(JsonReader reader) throws IOException {
+        return isNull(reader) ? null : reader.nextDouble();
+    }
+
+    public static Boolean readBoolean(JsonReader reader) throws IOException {
+        return isNull(reader) ? null : reader.nextBoolean();
+    }
+
+    public static UUID readUUID(JsonReader reader) throws IOException {
+        return isNull(reader) ? null : UUID.fromString(reader.nextString());
+    }
+
+    public static JsonObject readJsonObject(JsonReader reader) throws IOException {
+        return isNull(reader) ? null : GSON.fromJson(reader, JsonObject.class);
+    }
+
+    public static <T> T[] readArray(JsonReader reader, Reader<T> elementReader, IntFunction<T[]> arrayFactory) throws IOException {
+        if(isNull(reader))
+            return null;
+        List<T> elements = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext())
+            elements.add(elementReader.read(reader));
+        reader.endArray();
+        return elements.toArray(arrayFactory.apply(elements.size()));
+    }
+
+    public static <T> Reader<T[]> arrayReader(Reader<T> elementReader, IntFunction<T[]> arrayFactory) {
+        return reader -> readArray(reader, elementReader, arrayFactory);
+    }
+
+    public static void writeString(String value, JsonWriter writer) throws IOException {
+        writer.value(value);
+    }
+
+    public static void writeInteger(Integer value, JsonWriter writer) throws IOException {
+        writer.value(value);
+    }
+
+    public static void writeLong(Long value, JsonWriter writer) throws IOException {
+        writer.value(value);
+    }
+
+    public static void writeFloat(Float value, JsonWriter writer) throws IOException {
+        writer.value(value);
+    }
+
+    public static void writeDouble(Double value, JsonWriter writer) throws IOException {
+        writer.value(value);
+    }
+
+    public static void writeBoolean(Boolean value, JsonWriter writer) throws IOException {
+        writer.value(value);
+    }
+
+    public static void writeUUID(UUID value, JsonWriter writer) throws IOException {
+        writer.value(value != null ? value.toString() : null);
+    }
+
+    public static void writeJsonObject(JsonObject value, JsonWriter writer) throws IOException {
+        if(value == null) {
+            writer.nullValue();
+            return;
+        }
+        GSON.toJson(value, writer);
+    }
+
+    public static <T> void writeArray(T[] values, JsonWriter writer, Writer<T> elementWriter) throws IOException {
+        if(values == null) {
+            writer.nullValue();
+            return;
+        }
+        writer.beginArray();
+        for(T value : values) {
+            if(value == null) {
+                writer.nullValue();
+            } else {
+                elementWriter.write(value, writer);
+            }
+        }
+        writer.endArray();
+    }
+
+    public static <T> Writer<T[]> arrayWriter(Writer<T> elementWriter) {
+        return (values, writer) -> writeArray(values, writer, elementWriter);
+    }
+
+{{#primitives}}
+    public static int[] readIntArray(JsonReader reader) throws IOException {
+        if(isNull(reader))
+            return null;
+        int[] values = new int[16];
+        int size = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if(size == values.length)
+                values = Arrays.copyOf(values, size * 2);
+            values[size++] = reader.nextInt();
+        }
+        reader.endArray();
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    public static void writeIntArray(int[] values, JsonWriter writer) throws IOException {
+        if(values == null) {
+            writer.nullValue();
+            return;
+        }
+        writer.beginArray();
+        for(int value : values)
+            writer.value(value);
+        writer.endArray();
+    }
+
+    public static long[] readLongArray(JsonReader reader) throws IOException {
+        if(isNull(reader))
+            return null;
+        long[] values = new long[16];
+        int size = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if(size == values.length)
+                values = Arrays.copyOf(values, size * 2);
+            values[size++] = reader.nextLong();
+        }
+        reader.endArray();
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    public static void writeLongArray(long[] values, JsonWriter writer) throws IOException {
+        if(values == null) {
+            writer.nullValue();
+            return;
+        }
+        writer.beginArray();
+        for(long value : values)
+            writer.value(value);
+        writer.endArray();
+    }
+
+    public static float[] readFloatArray(JsonReader reader) throws IOException {
+        if(isNull(reader))
+            return null;
+        float[] values = new float[16];
+        int size = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if(size == values.length)
+                values = Arrays.copyOf(values, size * 2);
+            values[size++] = (float) reader.nextDouble();
+        }
+        reader.endArray();
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    public static void writeFloatArray(float[] values, JsonWriter writer) throws IOException {
+        if(values == null) {
+            writer.nullValue();
+            return;
+        }
+        writer.beginArray();
+        for(float value : values)
+            writer.value((Float) value);
+        writer.endArray();
+    }
+
+    public static double[] readDoubleArray(JsonReader reader) throws IOException {
+        if(isNull(reader))
+            return null;
+        double[] values = new double[16];
+        int size = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if(size == values.length)
+                values = Arrays.copyOf(values, size * 2);
+            values[size++] = reader.nextDouble();
+        }
+        reader.endArray();
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    public static void writeDoubleArray(double[] values, JsonWriter writer) throws IOException {
+        if(values == null) {
+            writer.nullValue();
+            return;
+        }
+        writer.beginArray();
+        for(double value : values)
+            writer.value(value);
+        writer.endArray();
+    }
+
+    public static boolean[] readBooleanArray(JsonReader reader) throws IOException {
+        if(isNull(reader))
+            return null;
+        boolean[] values = new boolean[16];
+        int size = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if(size == values.length)
+                values = Arrays.copyOf(values, size * 2);
+            values[size++] = reader.nextBoolean();
+        }
+        reader.endArray();
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    public static void writeBooleanArray(boolean[] values, JsonWriter writer) throws IOException {
+        if(values == null) {
+            writer.nullValue();
+            return;
+        }
+        writer.beginArray();
+        for(boolean value : values)
+            writer.value(value);
+        writer.endArray();
+    }
+
+{{/primitives}}
+}
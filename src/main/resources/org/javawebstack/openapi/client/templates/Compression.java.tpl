@@ -0,0 +1,249 @@
+package {{package}};
+
+{{^transport}}
+import org.javawebstack.httpclient.HTTPRequest;
+
+{{/transport}}
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+public class {{api}}Compression {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private volatile String acceptEncoding = "gzip, deflate";
+    private volatile int threshold = 1024;
+    private volatile boolean requestCompression;
+    private final ConcurrentHashMap<String, Boolean> operations = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder compressedRequests = new LongAdder();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder requestWireBytes = new LongAdder();
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder compressedResponses = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final LongAdder responseWireBytes = new LongAdder();
+
+    public {{api}}Compression setAcceptEncoding(String acceptEncoding) {
+        this.acceptEncoding = acceptEncoding;
+        return this;
+    }
+
+    public String getAcceptEncoding() {
+        return acceptEncoding;
+    }
+
+    public {{api}}Compression setThreshold(int threshold) {
+        this.threshold = threshold;
+        return this;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public {{api}}Compression setRequestCompression(boolean requestCompression) {
+        this.requestCompression = requestCompression;
+        return this;
+    }
+
+    public {{api}}Compression setRequestCompression(String operationId, boolean requestCompression) {
+        operations.put(operationId, requestCompression);
+        return this;
+    }
+
+    public boolean isRequestCompression(String operationId) {
+        Boolean enabled = operations.get(operationId);
+        return enabled != null ? enabled : requestCompression;
+    }
+
+    public Body compress(String operationId, String contentType, byte[] body) throws IOException {
+        requests.increment();
+        requestBytes.add(body.length);
+        if(body.length >= threshold && isRequestCompression(operationId)) {
+            ByteArrayOutputStream stream = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(stream, BUFFER_SIZE)) {
+                gzip.write(body);
+            }
+            if(stream.size() < body.length) {
+                compressedRequests.increment();
+                requestWireBytes.add(stream.size());
+                return new Body(contentType, "gzip", stream.toByteArray());
+            }
+        }
+        requestWireBytes.add(body.length);
+        return new Body(contentType, null, body);
+    }
+
+    public InputStream open(HTTPRequest request) throws IOException {
+        responses.increment();
+{{#transport}}
+        InputStream raw = counting(request.stream(), responseWireBytes);
+{{/transport}}
+{{^transport}}
+        byte[] body = request.bytes();
+        if(body == null)
+            body = new byte[0];
+        responseWireBytes.add(body.length);
+        InputStream raw = new ByteArrayInputStream(body);
+{{/transport}}
+        InputStream stream = decode(raw, request.header("Content-Encoding"));
+        if(stream != raw)
+            compressedResponses.increment();
+        return counting(stream, responseBytes);
+    }
+
+    public static InputStream decode(InputStream stream, String contentEncoding) throws IOException {
+        if(contentEncoding == null)
+            return stream;
+        switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+            case "":
+            case "identity":
+                return stream;
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(stream, BUFFER_SIZE);
+            case "deflate":
+                return inflate(stream);
+            default:
+                throw new IOException("Unsupported Content-Encoding: " + contentEncoding);
+        }
+    }
+
+    private static InputStream inflate(InputStream stream) throws IOException {
+        PushbackInputStream pushback = new PushbackInputStream(stream, 2);
+        int first = pushback.read();
+        int second = pushback.read();
+        if(second != -1)
+            pushback.unread(second);
+        if(first != -1)
+            pushback.unread(first);
+        boolean zlib = first != -1 && second != -1 && (first & 0x0F) == 8 && ((first << 8) | second) % 31 == 0;
+        Inflater inflater = new Inflater(!zlib);
+        return new InflaterInputStream(pushback, inflater, BUFFER_SIZE) {
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    inflater.end();
+                }
+            }
+        };
+    }
+
+    public static String text(HTTPRequest request) {
+        byte[] body = request.bytes();
+        if(body == null)
+            return null;
+        try (InputStream stream = decode(new ByteArrayInputStream(body), request.header("Content-Encoding"))) {
+            ByteArrayOutputStream text = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int r;
+            while ((r = stream.read(buffer)) != -1)
+                text.write(buffer, 0, r);
+            return new String(text.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException exception) {
+            return request.string();
+        }
+    }
+
+    private static InputStream counting(InputStream stream, LongAdder bytes) {
+        return new FilterInputStream(stream) {
+            public int read() throws IOException {
+                int b = super.read();
+                if(b != -1)
+                    bytes.increment();
+                return b;
+            }
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int r = super.read(buffer, offset, length);
+                if(r > 0)
+                    bytes.add(r);
+                return r;
+            }
+            public long skip(long n) throws IOException {
+                long skipped = super.skip(n);
+                bytes.add(skipped);
+                return skipped;
+            }
+        };
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getCompressedRequests() {
+        return compressedRequests.sum();
+    }
+
+    public long getRequestBytes() {
+        return requestBytes.sum();
+    }
+
+    public long getRequestWireBytes() {
+        return requestWireBytes.sum();
+    }
+
+    public long getRequestBytesSaved() {
+        return requestBytes.sum() - requestWireBytes.sum();
+    }
+
+    public long getResponses() {
+        return responses.sum();
+    }
+
+    public long getCompressedResponses() {
+        return compressedResponses.sum();
+    }
+
+    public long getResponseBytes() {
+        return responseBytes.sum();
+    }
+
+    public long getResponseWireBytes() {
+        return responseWireBytes.sum();
+    }
+
+    public long getResponseBytesSaved() {
+        return responseBytes.sum() - responseWireBytes.sum();
+    }
+
+    public static final class Body {
+
+        private final String contentType;
+        private final String contentEncoding;
+        private final byte[] bytes;
+
+        private Body(String contentType, String contentEncoding, byte[] bytes) {
+            this.contentType = contentType;
+            this.contentEncoding = contentEncoding;
+            this.bytes = bytes;
+        }
+
+        public HTTPRequest applyTo(HTTPRequest request) {
+            request.header("Content-Type", contentType);
+            if(contentEncoding != null)
+                request.header("Content-Encoding", contentEncoding);
+            request.body(bytes);
+            return request;
+        }
+
+        public String getContentEncoding() {
+            return contentEncoding;
+        }
+
+        public int size() {
+            return bytes.length;
+        }
+
+    }
+
+}
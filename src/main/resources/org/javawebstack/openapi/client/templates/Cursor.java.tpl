@@ -0,0 +1,72 @@
+package {{package}};
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class {{api}}Cursor<T> implements Iterator<T>, Closeable {
+
+    private final JsonReader reader;
+    private final {{api}}Codec.Reader<T> elementReader;
+    private boolean closed;
+
+    public {{api}}Cursor(InputStream stream, {{api}}Codec.Reader<T> elementReader) throws IOException {
+        this.reader = new JsonReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        this.elementReader = elementReader;
+        reader.setLenient(true);
+        if({{api}}Codec.isNull(reader)) {
+            close();
+        } else {
+            reader.beginArray();
+        }
+    }
+
+    public boolean hasNext() {
+        if(closed)
+            return false;
+        try {
+            if(reader.hasNext())
+                return true;
+            reader.endArray();
+            close();
+            return false;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    public T next() {
+        if(!hasNext())
+            throw new NoSuchElementException();
+        try {
+            return elementReader.read(reader);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        });
+    }
+
+    public void close() throws IOException {
+        if(closed)
+            return;
+        closed = true;
+        reader.close();
+    }
+
+}
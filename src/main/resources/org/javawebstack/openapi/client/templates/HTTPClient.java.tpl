@@ -0,0 +1,83 @@
+package {{package}};
+
+import com.google.gson.Gson;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class HTTPClient {
+
+    private volatile {{api}}Transport transport;
+    private volatile String baseUrl = "";
+    private volatile Gson gson = new Gson();
+    private final Map<String, String[]> headers = new LinkedHashMap<>();
+
+    public HTTPClient({{api}}Transport transport) {
+        this.transport = transport;
+    }
+
+    public HTTPClient transport({{api}}Transport transport) {
+        this.transport = transport;
+        return this;
+    }
+
+    public {{api}}Transport getTransport() {
+        return transport;
+    }
+
+    public HTTPClient url(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        return this;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public HTTPClient gson(Gson gson) {
+        this.gson = gson;
+        return this;
+    }
+
+    public Gson getGson() {
+        return gson;
+    }
+
+    public synchronized HTTPClient header(String name, String... values) {
+        headers.put(name, values);
+        return this;
+    }
+
+    public HTTPClient bearer(String token) {
+        return header("Authorization", "Bearer " + token);
+    }
+
+    synchronized Map<String, String[]> getHeaders() {
+        return new LinkedHashMap<>(headers);
+    }
+
+    public HTTPRequest request(String method, String path) {
+        return new HTTPRequest(this, method, path);
+    }
+
+    public HTTPRequest get(String path) {
+        return request("GET", path);
+    }
+
+    public HTTPRequest post(String path) {
+        return request("POST", path);
+    }
+
+    public HTTPRequest put(String path) {
+        return request("PUT", path);
+    }
+
+    public HTTPRequest patch(String path) {
+        return request("PATCH", path);
+    }
+
+    public HTTPRequest delete(String path) {
+        return request("DELETE", path);
+    }
+
+}
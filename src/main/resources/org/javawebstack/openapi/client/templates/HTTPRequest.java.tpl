@@ -0,0 +1,168 @@
+package {{package}};
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public class HTTPRequest {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final HTTPClient client;
+    private final String method;
+    private final String path;
+    private final Map<String, String[]> headers;
+    private byte[] body;
+    private int status;
+    private Map<String, List<String>> responseHeaders = Collections.emptyMap();
+    private byte[] responseBody = EMPTY;
+    private InputStream responseStream;
+    private boolean streamed;
+    private IOException failure;
+
+    HTTPRequest(HTTPClient client, String method, String path) {
+        this.client = client;
+        this.method = method;
+        this.path = path;
+        this.headers = client.getHeaders();
+    }
+
+    public HTTPRequest header(String name, String... values) {
+        headers.put(name, values);
+        return this;
+    }
+
+    public HTTPRequest body(byte[] body) {
+        this.body = body;
+        return this;
+    }
+
+    public HTTPRequest body(String body) {
+        return body(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public HTTPRequest streamed() {
+        this.streamed = true;
+        return this;
+    }
+
+    public HTTPRequest jsonBody(Object body) {
+        header("Content-Type", "application/json");
+        return body(client.getGson().toJson(body));
+    }
+
+    public HTTPRequest execute() {
+        Map<String, List<String>> requestHeaders = new LinkedHashMap<>();
+        headers.forEach((name, values) -> requestHeaders.put(name, Arrays.asList(values)));
+        close();
+        responseBody = EMPTY;
+        try {
+            {{api}}Transport.Response response = client.getTransport().send(method, client.getBaseUrl() + path, requestHeaders, body);
+            status = response.getStatus();
+            responseHeaders = response.getHeaders();
+            failure = null;
+            if(response.getBody() == null)
+                return this;
+            if(streamed && status >= 200 && status <= 299) {
+                responseStream = response.getBody();
+                responseBody = null;
+            } else {
+                responseBody = readAll(response.getBody());
+            }
+        } catch (IOException exception) {
+            status = 0;
+            responseHeaders = Collections.emptyMap();
+            responseBody = EMPTY;
+            failure = exception;
+        }
+        return this;
+    }
+
+    public int status() {
+        return status;
+    }
+
+    public String header(String name) {
+        for(Map.Entry<String, List<String>> entry : responseHeaders.entrySet()) {
+            if(entry.getKey() != null && entry.getKey().equalsIgnoreCase(name) && !entry.getValue().isEmpty())
+                return entry.getValue().get(0);
+        }
+        return null;
+    }
+
+    public Map<String, List<String>> headers() {
+        return responseHeaders;
+    }
+
+    public byte[] bytes() {
+        if(responseBody == null) {
+            InputStream stream = responseStream;
+            responseStream = null;
+            try {
+                responseBody = readAll(stream);
+            } catch (IOException exception) {
+                responseBody = EMPTY;
+                failure = exception;
+            }
+        }
+        return responseBody;
+    }
+
+    public InputStream stream() {
+        if(responseStream == null)
+            return new ByteArrayInputStream(bytes());
+        InputStream stream = responseStream;
+        responseStream = null;
+        responseBody = EMPTY;
+        return stream;
+    }
+
+    public long contentLength() {
+        if(responseBody != null)
+            return responseBody.length;
+        String length = header("Content-Length");
+        try {
+            return length != null ? Long.parseLong(length.trim()) : -1;
+        } catch (NumberFormatException exception) {
+            return -1;
+        }
+    }
+
+    public void close() {
+        InputStream stream = responseStream;
+        responseStream = null;
+        if(stream == null)
+            return;
+        responseBody = EMPTY;
+        try {
+            stream.close();
+        } catch (IOException ignored) {}
+    }
+
+    public String string() {
+        return failure != null ? failure.toString() : new String(bytes(), StandardCharsets.UTF_8);
+    }
+
+    public <T> T object(Class<T> type) {
+        return client.getGson().fromJson(new String(bytes(), StandardCharsets.UTF_8), type);
+    }
+
+    public IOException getFailure() {
+        return failure;
+    }
+
+    private static byte[] readAll(InputStream stream) throws IOException {
+        try (InputStream in = stream) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int r;
+            while ((r = in.read(buffer)) != -1)
+                out.write(buffer, 0, r);
+            return out.toByteArray();
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+package {{package}};
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class {{api}}HttpTransport implements {{api}}Transport {
+
+    private static final List<String> RESTRICTED_HEADERS = Arrays.asList("connection", "content-length", "expect", "host", "upgrade");
+
+    private final HttpClient client;
+    private final Duration readTimeout;
+    private final Semaphore permits;
+
+    public {{api}}HttpTransport() {
+        this(Duration.ofSeconds(10), Duration.ofSeconds(30), 0);
+    }
+
+    public {{api}}HttpTransport(Duration connectTimeout, Duration readTimeout, int maxConcurrentRequests) {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build(), readTimeout, maxConcurrentRequests);
+    }
+
+    public {{api}}HttpTransport(HttpClient client, Duration readTimeout, int maxConcurrentRequests) {
+        this.client = client;
+        this.readTimeout = readTimeout;
+        this.permits = maxConcurrentRequests > 0 ? new Semaphore(maxConcurrentRequests) : null;
+    }
+
+    public Response send(String method, String url, Map<String, List<String>> headers, byte[] body) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .method(method, body != null ? HttpRequest.BodyPublishers.ofByteArray(body) : HttpRequest.BodyPublishers.noBody());
+        if(readTimeout != null)
+            builder.timeout(readTimeout);
+        headers.forEach((name, values) -> {
+            if(RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT)))
+                return;
+            for(String value : values)
+                builder.header(name, value);
+        });
+        boolean acquired = false;
+        try {
+            if(permits != null) {
+                permits.acquire();
+                acquired = true;
+            }
+            HttpResponse<InputStream> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+            InputStream stream = acquired ? new PermitInputStream(response.body(), permits) : response.body();
+            acquired = false;
+            return new Response(response.statusCode(), response.headers().map(), stream);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(exception.getMessage());
+        } finally {
+            if(acquired)
+                permits.release();
+        }
+    }
+
+    public HttpClient getClient() {
+        return client;
+    }
+
+    public int getAvailablePermits() {
+        return permits != null ? permits.availablePermits() : Integer.MAX_VALUE;
+    }
+
+    private static class PermitInputStream extends FilterInputStream {
+
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitInputStream(InputStream stream, Semaphore permits) {
+            super(stream);
+            this.permits = permits;
+        }
+
+        public int read() throws IOException {
+            int b = super.read();
+            if(b == -1)
+                release();
+            return b;
+        }
+
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int r = super.read(buffer, offset, length);
+            if(r == -1)
+                release();
+            return r;
+        }
+
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                release();
+            }
+        }
+
+        private void release() {
+            if(released.compareAndSet(false, true))
+                permits.release();
+        }
+
+    }
+
+}
@@ -0,0 +1,7 @@
+package {{package}};
+
+public interface {{api}}Listener {
+
+    void onOperation(String operationId, String method, String path, int status, long requestBytes, long responseBytes, long encodeNanos, long networkNanos, long decodeNanos, Throwable error);
+
+}
@@ -0,0 +1,171 @@
+package {{package}};
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class {{api}}Metrics implements {{api}}Listener {
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    public void onOperation(String operationId, String method, String path, int status, long requestBytes, long responseBytes, long encodeNanos, long networkNanos, long decodeNanos, Throwable error) {
+        Operation operation = operations.get(operationId);
+        if(operation == null)
+            operation = operations.computeIfAbsent(operationId, id -> new Operation(method, path));
+        operation.calls.increment();
+        if(error != null)
+            operation.errors.increment();
+        if(requestBytes > 0)
+            operation.requestBytes.add(requestBytes);
+        operation.responseBytes.add(responseBytes);
+        operation.latency.record(encodeNanos + networkNanos + decodeNanos);
+        operation.encode.record(encodeNanos);
+        operation.network.record(networkNanos);
+        operation.decode.record(decodeNanos);
+    }
+
+    public Operation get(String operationId) {
+        return operations.get(operationId);
+    }
+
+    public Map<String, Operation> getOperations() {
+        return Collections.unmodifiableMap(operations);
+    }
+
+    public void reset() {
+        operations.clear();
+    }
+
+    public static class Operation {
+
+        private final String method;
+        private final String path;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder requestBytes = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+        private final Histogram latency = new Histogram();
+        private final Histogram encode = new Histogram();
+        private final Histogram network = new Histogram();
+        private final Histogram decode = new Histogram();
+
+        Operation(String method, String path) {
+            this.method = method;
+            this.path = path;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public long getRequestBytes() {
+            return requestBytes.sum();
+        }
+
+        public long getResponseBytes() {
+            return responseBytes.sum();
+        }
+
+        public Histogram getLatency() {
+            return latency;
+        }
+
+        public Histogram getEncode() {
+            return encode;
+        }
+
+        public Histogram getNetwork() {
+            return network;
+        }
+
+        public Histogram getDecode() {
+            return decode;
+        }
+
+    }
+
+    public static class Histogram {
+
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        private final AtomicLongArray counts = new AtomicLongArray((64 - SUB_BUCKET_BITS) * SUB_BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        public void record(long value) {
+            if(value < 0)
+                value = 0;
+            counts.incrementAndGet(index(value));
+            count.increment();
+            sum.add(value);
+            max.accumulate(value);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public double getMean() {
+            long count = this.count.sum();
+            return count == 0 ? 0 : (double) sum.sum() / count;
+        }
+
+        public long getPercentile(double percentile) {
+            long[] snapshot = new long[counts.length()];
+            long total = 0;
+            for(int i = 0; i < snapshot.length; i++) {
+                snapshot[i] = counts.get(i);
+                total += snapshot[i];
+            }
+            if(total == 0)
+                return 0;
+            long target = Math.max(1, (long) Math.ceil(total * Math.min(percentile, 100) / 100));
+            long seen = 0;
+            for(int i = 0; i < snapshot.length; i++) {
+                seen += snapshot[i];
+                if(seen >= target)
+                    return Math.min(highestValue(i), getMax());
+            }
+            return getMax();
+        }
+
+        private static int index(long value) {
+            if(value < SUB_BUCKETS)
+                return (int) value;
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int shift = exponent - SUB_BUCKET_BITS;
+            return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+        }
+
+        private static long highestValue(int index) {
+            if(index < SUB_BUCKETS)
+                return index;
+            int shift = index / SUB_BUCKETS - 1;
+            long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+            return lowest + (1L << shift) - 1;
+        }
+
+    }
+
+}
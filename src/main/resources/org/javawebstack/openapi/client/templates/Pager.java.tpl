@@ -0,0 +1,75 @@
+package {{package}};
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class {{api}}Pager<T> implements Iterator<T>, AutoCloseable {
+
+    public interface PageFetcher<T> {
+        T[] fetch(int page) throws {{api}}Exception;
+    }
+
+    private final {{api}}Client client;
+    private final PageFetcher<T> fetcher;
+    private final int prefetch;
+    private final Deque<CompletableFuture<T[]>> pending = new ArrayDeque<>();
+    private int nextPage;
+    private T[] current;
+    private int index;
+    private boolean exhausted;
+
+    public {{api}}Pager({{api}}Client client, PageFetcher<T> fetcher) {
+        this.client = client;
+        this.fetcher = fetcher;
+        this.prefetch = Math.max(0, client.getPrefetch());
+    }
+
+    public boolean hasNext() {
+        while (current == null || index >= current.length) {
+            if(exhausted)
+                return false;
+            fill(Math.max(1, prefetch));
+            T[] page = pending.poll().join();
+            if(page == null || page.length == 0) {
+                close();
+                return false;
+            }
+            current = page;
+            index = 0;
+            fill(prefetch);
+        }
+        return true;
+    }
+
+    public T next() {
+        if(!hasNext())
+            throw new NoSuchElementException();
+        return current[index++];
+    }
+
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false).onClose(this::close);
+    }
+
+    public void close() {
+        exhausted = true;
+        current = null;
+        pending.forEach(future -> future.cancel(false));
+        pending.clear();
+    }
+
+    private void fill(int size) {
+        while (pending.size() < size) {
+            int page = nextPage++;
+            pending.add(client.async(() -> fetcher.fetch(page)));
+        }
+    }
+
+}
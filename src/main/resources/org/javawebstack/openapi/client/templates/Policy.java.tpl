@@ -0,0 +1,185 @@
+package {{package}};
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class {{api}}Policy {
+
+    private static final int WINDOW = 256;
+    private static final long TOKEN = 1000;
+
+    private volatile int maxAttempts = 1;
+    private volatile long initialBackoff = 50;
+    private volatile long maxBackoff = 2000;
+    private volatile double hedgePercentile;
+    private volatile long hedgeDelay;
+    private volatile long deposit = 100;
+    private volatile long maxTokens = 10 * TOKEN;
+    private volatile Executor executor;
+    private final AtomicLong tokens = new AtomicLong(10 * TOKEN);
+    private final Map<String, Latency> latencies = new ConcurrentHashMap<>();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public {{api}}Policy setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        return this;
+    }
+
+    public {{api}}Policy setBackoff(long initialMillis, long maxMillis) {
+        this.initialBackoff = initialMillis;
+        this.maxBackoff = maxMillis;
+        return this;
+    }
+
+    public {{api}}Policy setHedge(double percentile, long initialDelayMillis) {
+        this.hedgePercentile = percentile;
+        this.hedgeDelay = TimeUnit.MILLISECONDS.toNanos(initialDelayMillis);
+        latencies.clear();
+        return this;
+    }
+
+    public {{api}}Policy setRetryBudget(double ratio, int maxTokens) {
+        this.deposit = (long) (ratio * TOKEN);
+        this.maxTokens = maxTokens * TOKEN;
+        tokens.set(this.maxTokens);
+        return this;
+    }
+
+    public {{api}}Policy setExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public boolean isHedged() {
+        return hedgePercentile > 0;
+    }
+
+    public boolean isRetryable(int status) {
+        switch (status) {
+            case 0:
+            case 408:
+            case 429:
+            case 502:
+            case 503:
+            case 504:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public long getBackoff(int attempt) {
+        long cap = Math.min(maxBackoff, initialBackoff << Math.min(attempt - 1, 30));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    public long getHedgeDelay(String operationId) {
+        Latency latency = latencies.get(operationId);
+        return latency != null && latency.threshold > 0 ? latency.threshold : hedgeDelay;
+    }
+
+    public Executor getExecutor() {
+        Executor executor = this.executor;
+        return executor != null ? executor : SharedExecutor.INSTANCE;
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public double getTokens() {
+        return (double) tokens.get() / TOKEN;
+    }
+
+    void deposit() {
+        long deposit = this.deposit;
+        long maxTokens = this.maxTokens;
+        tokens.getAndUpdate(current -> Math.min(maxTokens, current + deposit));
+    }
+
+    boolean acquireRetry() {
+        if(!withdraw())
+            return false;
+        retries.increment();
+        return true;
+    }
+
+    boolean acquireHedge() {
+        if(!withdraw())
+            return false;
+        hedges.increment();
+        return true;
+    }
+
+    void record(String operationId, long nanos) {
+        if(hedgePercentile <= 0)
+            return;
+        Latency latency = latencies.get(operationId);
+        if(latency == null)
+            latency = latencies.computeIfAbsent(operationId, id -> new Latency());
+        latency.record(nanos, hedgePercentile);
+    }
+
+    private boolean withdraw() {
+        while (true) {
+            long current = tokens.get();
+            if(current < TOKEN) {
+                rejected.increment();
+                return false;
+            }
+            if(tokens.compareAndSet(current, current - TOKEN))
+                return true;
+        }
+    }
+
+    private static class Latency {
+
+        private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+        private final AtomicInteger index = new AtomicInteger();
+        private volatile long threshold;
+
+        void record(long nanos, double percentile) {
+            int i = index.getAndIncrement();
+            samples.set(i & (WINDOW - 1), nanos);
+            if(((i + 1) & (WINDOW - 1)) != 0)
+                return;
+            long[] snapshot = new long[WINDOW];
+            for(int j = 0; j < WINDOW; j++)
+                snapshot[j] = samples.get(j);
+            Arrays.sort(snapshot);
+            int rank = (int) Math.ceil(WINDOW * Math.min(percentile, 100) / 100) - 1;
+            threshold = snapshot[Math.max(0, Math.min(WINDOW - 1, rank))];
+        }
+
+    }
+
+    private static class SharedExecutor {
+
+        private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "{{api}}Policy");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    }
+
+}
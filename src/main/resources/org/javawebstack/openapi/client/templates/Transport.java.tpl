@@ -0,0 +1,43 @@
+package {{package}};
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+public interface {{api}}Transport {
+
+    Response send(String method, String url, Map<String, List<String>> headers, byte[] body) throws IOException;
+
+    final class Response {
+
+        private final int status;
+        private final Map<String, List<String>> headers;
+        private final InputStream body;
+
+        public Response(int status, Map<String, List<String>> headers, InputStream body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public Response(int status, Map<String, List<String>> headers, byte[] body) {
+            this(status, headers, body != null ? new ByteArrayInputStream(body) : null);
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+
+        public InputStream getBody() {
+            return body;
+        }
+
+    }
+
+}
@@ -0,0 +1,109 @@
+package {{package}};
+
+public final class {{api}}Url {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private {{api}}Url() {}
+
+    public static void segment(StringBuilder target, String name, String value) {
+        encode(target, required(name, value));
+    }
+
+    public static void segment(StringBuilder target, String name, Integer value) {
+        target.append(required(name, value).intValue());
+    }
+
+    public static void segment(StringBuilder target, String name, Long value) {
+        target.append(required(name, value).longValue());
+    }
+
+    public static void segment(StringBuilder target, String name, Object value) {
+        encode(target, required(name, value).toString());
+    }
+
+    public static char query(StringBuilder target, char separator, String name, String value) {
+        if(value == null)
+            return separator;
+        target.append(separator).append(name);
+        encode(target, value);
+        return '&';
+    }
+
+    public static char query(StringBuilder target, char separator, String name, Integer value) {
+        if(value == null)
+            return separator;
+        target.append(separator).append(name).append(value.intValue());
+        return '&';
+    }
+
+    public static char query(StringBuilder target, char separator, String name, Long value) {
+        if(value == null)
+            return separator;
+        target.append(separator).append(name).append(value.longValue());
+        return '&';
+    }
+
+    public static char query(StringBuilder target, char separator, String name, Boolean value) {
+        if(value == null)
+            return separator;
+        target.append(separator).append(name).append(value.booleanValue());
+        return '&';
+    }
+
+    public static char query(StringBuilder target, char separator, String name, Object[] values) {
+        if(values == null)
+            return separator;
+        for(Object value : values)
+            separator = query(target, separator, name, value);
+        return separator;
+    }
+
+    public static char query(StringBuilder target, char separator, String name, Object value) {
+        if(value == null)
+            return separator;
+        if(value instanceof Integer || value instanceof Long || value instanceof Boolean) {
+            target.append(separator).append(name).append(value);
+            return '&';
+        }
+        return query(target, separator, name, value.toString());
+    }
+
+    public static void encode(StringBuilder target, CharSequence value) {
+        int length = value.length();
+        for(int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '.' || c == '_' || c == '~') {
+                target.append(c);
+            } else if(c < 0x80) {
+                percent(target, c);
+            } else if(c < 0x800) {
+                percent(target, 0xC0 | (c >> 6));
+                percent(target, 0x80 | (c & 0x3F));
+            } else if(Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                percent(target, 0xF0 | (codePoint >> 18));
+                percent(target, 0x80 | ((codePoint >> 12) & 0x3F));
+                percent(target, 0x80 | ((codePoint >> 6) & 0x3F));
+                percent(target, 0x80 | (codePoint & 0x3F));
+            } else if(Character.isSurrogate(c)) {
+                percent(target, '?');
+            } else {
+                percent(target, 0xE0 | (c >> 12));
+                percent(target, 0x80 | ((c >> 6) & 0x3F));
+                percent(target, 0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private static <T> T required(String name, T value) {
+        if(value == null)
+            throw new IllegalArgumentException("Path parameter '" + name + "' must not be null");
+        return value;
+    }
+
+    private static void percent(StringBuilder target, int b) {
+        target.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+    }
+
+}
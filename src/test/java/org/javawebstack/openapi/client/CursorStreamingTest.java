@@ -0,0 +1,76 @@
+package org.javawebstack.openapi.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.*;
+
+import static org.javawebstack.openapi.client.GeneratedClient.call;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CursorStreamingTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private GeneratedClient generated;
+    private ExecutorService executor;
+    private HttpServer server;
+
+    @BeforeEach
+    public void start() throws Exception {
+        JavaClientGenerator generator = new JavaClientGenerator(SyntheticSpec.create(1, 0, 1));
+        generator.setTransport(true);
+        generator.setStreaming(true);
+        generated = GeneratedClient.compile(generator);
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/schema0/1", exchange -> {
+            exchange.getRequestBody().close();
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream stream = exchange.getResponseBody()) {
+                stream.write("[{\"id\":1},".getBytes(StandardCharsets.UTF_8));
+                stream.flush();
+                release.await(10, TimeUnit.SECONDS);
+                stream.write("{\"id\":2}]".getBytes(StandardCharsets.UTF_8));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stop() throws IOException {
+        release.countDown();
+        if(server != null)
+            server.stop(0);
+        if(executor != null)
+            executor.shutdownNow();
+        if(generated != null)
+            generated.close();
+    }
+
+    @Test
+    public void readsElementsBeforeTheResponseIsComplete() throws Exception {
+        Object client = generated.create("SyntheticAPIClient");
+        call(client, "url", "http://127.0.0.1:" + server.getAddress().getPort());
+        Object body = generated.create("schemas.Schema0");
+
+        Future<Object> cursor = executor.submit(() -> call(call(client, "tag0"), "updateSchema0Stream", 1L, body));
+        Object first = executor.submit(() -> call(cursor.get(), "next")).get(5, TimeUnit.SECONDS);
+        assertEquals(1L, call(first, "getId"));
+
+        release.countDown();
+        assertEquals(2L, call(call(cursor.get(), "next"), "getId"));
+        assertEquals(false, call(cursor.get(), "hasNext"));
+    }
+
+}
@@ -0,0 +1,92 @@
+package org.javawebstack.openapi.client;
+
+import com.google.gson.Gson;
+import org.javawebstack.openapi.client.output.JarOutputSink;
+import org.junit.jupiter.api.Assumptions;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+class GeneratedClient implements Closeable {
+
+    private final String basePackage;
+    private final File jar;
+    private final URLClassLoader classLoader;
+
+    private GeneratedClient(String basePackage, File jar) throws IOException {
+        this.basePackage = basePackage;
+        this.jar = jar;
+        this.classLoader = new URLClassLoader(new URL[]{ jar.toURI().toURL() }, GeneratedClient.class.getClassLoader());
+    }
+
+    static GeneratedClient compile(JavaClientGenerator generator) throws IOException {
+        Assumptions.assumeTrue(!System.getProperty("java.specification.version").startsWith("1."), "Generated clients with --transport require Java 11 or newer");
+        File jar = File.createTempFile("generated-client", ".jar");
+        try (JarOutputSink sink = new JarOutputSink(jar, new File(Gson.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath(), generator.isTransport() ? 11 : 8)) {
+            generator.generate(sink);
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+        return new GeneratedClient(generator.getBasePackage(), jar);
+    }
+
+    Class<?> load(String name) throws ClassNotFoundException {
+        return classLoader.loadClass(basePackage + "." + name);
+    }
+
+    Object create(String name, Object... args) throws Exception {
+        for(Constructor<?> constructor : load(name).getConstructors()){
+            if(matches(constructor.getParameterTypes(), args))
+                return invoke(() -> constructor.newInstance(args));
+        }
+        throw new NoSuchMethodException(name + " has no constructor for the given arguments");
+    }
+
+    Object proxy(String name, InvocationHandler handler) throws ClassNotFoundException {
+        return Proxy.newProxyInstance(classLoader, new Class<?>[]{ load(name) }, handler);
+    }
+
+    static Object call(Object target, String name, Object... args) throws Exception {
+        for(Method method : target.getClass().getMethods()){
+            if(method.getName().equals(name) && matches(method.getParameterTypes(), args))
+                return invoke(() -> method.invoke(target, args));
+        }
+        throw new NoSuchMethodException(target.getClass().getName() + "." + name);
+    }
+
+    public void close() throws IOException {
+        classLoader.close();
+        jar.delete();
+    }
+
+    private static boolean matches(Class<?>[] types, Object[] args) {
+        if(types.length != args.length)
+            return false;
+        for(int i = 0; i < types.length; i++){
+            if(args[i] == null ? types[i].isPrimitive() : !MethodType.methodType(types[i]).wrap().returnType().isInstance(args[i]))
+                return false;
+        }
+        return true;
+    }
+
+    private static Object invoke(Reflective call) throws Exception {
+        try {
+            return call.invoke();
+        } catch (InvocationTargetException e) {
+            if(e.getCause() instanceof Exception)
+                throw (Exception) e.getCause();
+            throw e;
+        }
+    }
+
+    private interface Reflective {
+        Object invoke() throws ReflectiveOperationException;
+    }
+
+}
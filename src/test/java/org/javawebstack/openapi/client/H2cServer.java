@@ -0,0 +1,171 @@
+package org.javawebstack.openapi.client;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Minimal cleartext HTTP/2 server: it only accepts connections upgraded with "Upgrade: h2c" (HTTP/1.1 requests get a 505)
+// and answers every request stream with the same JSON body after a fixed delay
+class H2cServer implements Closeable {
+
+    private static final int DATA = 0;
+    private static final int HEADERS = 1;
+    private static final int SETTINGS = 4;
+    private static final int PING = 6;
+    private static final int GOAWAY = 7;
+    private static final int END_STREAM = 1;
+    private static final int ACK = 1;
+    private static final int END_HEADERS = 4;
+
+    private final byte[] body;
+    private final long delayMillis;
+    private final ServerSocket socket;
+    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(4);
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger streams = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    H2cServer(byte[] body, long delayMillis) throws IOException {
+        this.body = body;
+        this.delayMillis = delayMillis;
+        this.socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(() -> {
+            while (!socket.isClosed()){
+                try {
+                    Socket connection = socket.accept();
+                    connections.incrementAndGet();
+                    Thread handler = new Thread(() -> handle(connection));
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    String getUrl() {
+        return "http://127.0.0.1:" + socket.getLocalPort();
+    }
+
+    int getConnections() {
+        return connections.get();
+    }
+
+    int getStreams() {
+        return streams.get();
+    }
+
+    int getMaxConcurrentStreams() {
+        return maxInFlight.get();
+    }
+
+    public void close() throws IOException {
+        executor.shutdownNow();
+        socket.close();
+    }
+
+    private void handle(Socket connection) {
+        try (Socket ignored = connection) {
+            InputStream in = new BufferedInputStream(connection.getInputStream());
+            OutputStream out = connection.getOutputStream();
+            if(!readHead(in).toLowerCase().contains("upgrade: h2c")){
+                out.write("HTTP/1.1 505 HTTP Version Not Supported\r\nContent-Length: 0\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                return;
+            }
+            out.write("HTTP/1.1 101 Switching Protocols\r\nConnection: Upgrade\r\nUpgrade: h2c\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            frame(out, SETTINGS, 0, 0, new byte[0]);
+            request(out, 1);
+            readFully(in, new byte[24]);
+            while (true){
+                byte[] header = new byte[9];
+                readFully(in, header);
+                int length = ((header[0] & 0xFF) << 16) | ((header[1] & 0xFF) << 8) | (header[2] & 0xFF);
+                int type = header[3];
+                int flags = header[4] & 0xFF;
+                int stream = ((header[5] & 0x7F) << 24) | ((header[6] & 0xFF) << 16) | ((header[7] & 0xFF) << 8) | (header[8] & 0xFF);
+                byte[] payload = new byte[length];
+                readFully(in, payload);
+                if(type == SETTINGS && (flags & ACK) == 0){
+                    frame(out, SETTINGS, ACK, 0, new byte[0]);
+                }else if(type == PING && (flags & ACK) == 0){
+                    frame(out, PING, ACK, 0, payload);
+                }else if(type == GOAWAY){
+                    return;
+                }else if((type == HEADERS || type == DATA) && (flags & END_STREAM) != 0){
+                    request(out, stream);
+                }
+            }
+        } catch (IOException ignored) {}
+    }
+
+    private void request(OutputStream out, int stream) {
+        streams.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        executor.schedule(() -> {
+            inFlight.decrementAndGet();
+            try {
+                respond(out, stream);
+            } catch (IOException ignored) {}
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void respond(OutputStream out, int stream) throws IOException {
+        ByteArrayOutputStream headers = new ByteArrayOutputStream();
+        // HPACK: indexed ":status: 200", then "content-type" (static index 31) as a literal without indexing
+        headers.write(0x88);
+        headers.write(0x0F);
+        headers.write(31 - 15);
+        byte[] contentType = "application/json".getBytes(StandardCharsets.US_ASCII);
+        headers.write(contentType.length);
+        headers.write(contentType);
+        synchronized (out) {
+            frame(out, HEADERS, END_HEADERS, stream, headers.toByteArray());
+            frame(out, DATA, END_STREAM, stream, body);
+        }
+    }
+
+    private static void frame(OutputStream out, int type, int flags, int stream, byte[] payload) throws IOException {
+        synchronized (out) {
+            out.write(new byte[]{
+                    (byte) (payload.length >> 16), (byte) (payload.length >> 8), (byte) payload.length,
+                    (byte) type, (byte) flags,
+                    (byte) (stream >> 24), (byte) (stream >> 16), (byte) (stream >> 8), (byte) stream
+            });
+            out.write(payload);
+            out.flush();
+        }
+    }
+
+    private static String readHead(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int b;
+        while ((b = in.read()) != -1){
+            sb.append((char) b);
+            if(sb.length() >= 4 && sb.substring(sb.length() - 4).equals("\r\n\r\n"))
+                break;
+        }
+        return sb.toString();
+    }
+
+    private static void readFully(InputStream in, byte[] buffer) throws IOException {
+        int read = 0;
+        while (read < buffer.length){
+            int r = in.read(buffer, read, buffer.length - read);
+            if(r == -1)
+                throw new EOFException();
+            read += r;
+        }
+    }
+
+}
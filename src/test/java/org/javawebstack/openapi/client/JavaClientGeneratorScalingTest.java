@@ -0,0 +1,61 @@
+package org.javawebstack.openapi.client;
+
+import org.javawebstack.openapi.client.output.OutputSink;
+import org.javawebstack.openapi.parser.OpenAPI;
+import org.junit.jupiter.api.Test;
+
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class JavaClientGeneratorScalingTest {
+
+    private static final OutputSink DISCARD = path -> new Writer() {
+        public void write(char[] buffer, int offset, int length) {}
+        public void flush() {}
+        public void close() {}
+    };
+
+    @Test
+    public void visitsEveryOperationOnceRegardlessOfTheTagCount() {
+        // One tag per schema, so rescanning every path for every tag would grow with the square of the spec size
+        for(int size : new int[]{ 100, 400 }){
+            CountingGenerator generator = new CountingGenerator(SyntheticSpec.create(size, 0, size));
+            generator.generate(DISCARD);
+
+            assertEquals(1, generator.indexes.get());
+            assertEquals(size, generator.tags.size());
+            assertEquals(2 * size, generator.operations.get());
+            for(int i = 0; i < size; i++)
+                assertEquals(Integer.valueOf(2), generator.tags.get("tag" + i), "Operations passed for tag" + i);
+        }
+    }
+
+    private static class CountingGenerator extends JavaClientGenerator {
+
+        private final AtomicInteger indexes = new AtomicInteger();
+        private final AtomicInteger operations = new AtomicInteger();
+        private final Map<String, Integer> tags = new ConcurrentHashMap<>();
+
+        CountingGenerator(OpenAPI api) {
+            super(api);
+        }
+
+        Map<String, List<TagOperation>> indexOperations() {
+            indexes.incrementAndGet();
+            return super.indexOperations();
+        }
+
+        void generateTag(OutputSink sink, String tag, List<TagOperation> operations) {
+            this.operations.addAndGet(operations.size());
+            tags.merge(tag, operations.size(), Integer::sum);
+            super.generateTag(sink, tag, operations);
+        }
+
+    }
+
+}
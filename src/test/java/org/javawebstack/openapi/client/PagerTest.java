@@ -0,0 +1,107 @@
+package org.javawebstack.openapi.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.javawebstack.openapi.client.GeneratedClient.call;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PagerTest {
+
+    private final List<String> pages = new CopyOnWriteArrayList<>();
+    private GeneratedClient generated;
+    private HttpServer server;
+    private Object client;
+
+    @BeforeEach
+    public void start() throws Exception {
+        JavaClientGenerator generator = new JavaClientGenerator(SyntheticSpec.parse(spec()));
+        generator.setTransport(true);
+        generator.setPagination(true);
+        generated = GeneratedClient.compile(generator);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/items", exchange -> {
+            String page = exchange.getRequestURI().getQuery().replace("page=", "");
+            pages.add(page);
+            byte[] body = (Integer.parseInt(page) <= 3 ? "[{\"id\":1},{\"id\":2}]" : "[]").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream stream = exchange.getResponseBody()) {
+                stream.write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+        client = generated.create("PagedAPIClient");
+        call(client, "url", "http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    public void stop() throws IOException {
+        if(server != null)
+            server.stop(0);
+        if(generated != null)
+            generated.close();
+    }
+
+    @Test
+    public void onlyPagesIntegerLongAndStringParameters() throws Exception {
+        List<String> methods = Arrays.stream(generated.load("tags.ItemsTag").getMethods()).map(Method::getName).collect(Collectors.toList());
+
+        assertTrue(methods.contains("listItemsPages"));
+        assertFalse(methods.contains("listScoresPages"));
+        assertFalse(methods.contains("listFlagsPages"));
+    }
+
+    @Test
+    public void iteratesAllPages() throws Exception {
+        Object pager = call(call(client, "items"), "listItemsPages", 2);
+        int count = 0;
+        while ((boolean) call(pager, "hasNext")){
+            call(pager, "next");
+            count++;
+        }
+
+        assertEquals(4, count);
+        assertEquals(Arrays.asList("2", "3", "4"), pages);
+    }
+
+    @Test
+    public void stopsIteratingWhenClosed() throws Exception {
+        Object pager = call(call(client, "items"), "listItemsPages", 1);
+        assertEquals(1L, call(call(pager, "next"), "getId"));
+
+        call(pager, "close");
+
+        assertEquals(false, call(pager, "hasNext"));
+    }
+
+    private static String spec() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"openapi\":\"3.0.0\",\"info\":{\"title\":\"Paged API\",\"version\":\"1.0\"},\"tags\":[{\"name\":\"items\"}],\"paths\":{");
+        String[][] operations = {{ "items", "integer" }, { "scores", "number" }, { "flags", "boolean" }};
+        for(int i = 0; i < operations.length; i++){
+            if(i > 0)
+                sb.append(',');
+            String name = operations[i][0];
+            sb.append("\"/").append(name).append("\":{\"get\":{\"operationId\":\"list").append(Character.toUpperCase(name.charAt(0))).append(name.substring(1)).append("\",\"tags\":[\"items\"],")
+                    .append("\"parameters\":[{\"name\":\"page\",\"in\":\"query\",\"schema\":{\"type\":\"").append(operations[i][1]).append("\"}}],")
+                    .append("\"responses\":{\"200\":{\"description\":\"OK\",\"content\":{\"application/json\":{\"schema\":{\"type\":\"array\",\"items\":{\"$ref\":\"#/components/schemas/Item\"}}}}}}}}");
+        }
+        sb.append("},\"components\":{\"schemas\":{\"Item\":{\"type\":\"object\",\"properties\":{\"id\":{\"type\":\"integer\",\"format\":\"int64\"}}}}}}");
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,146 @@
+package org.javawebstack.openapi.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.javawebstack.openapi.client.GeneratedClient.call;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResiliencePolicyTest {
+
+    private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile int status = 200;
+    private volatile long firstDelay;
+    private GeneratedClient generated;
+    private ExecutorService executor;
+    private HttpServer server;
+    private Object client;
+    private Object policy;
+
+    @BeforeEach
+    public void start() throws Exception {
+        JavaClientGenerator generator = new JavaClientGenerator(SyntheticSpec.create(1, 0, 1));
+        generator.setTransport(true);
+        generator.setResilience(true);
+        generated = GeneratedClient.compile(generator);
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/schema0/1", exchange -> {
+            int request = requests.incrementAndGet();
+            if(request == 1 && firstDelay > 0){
+                try {
+                    release.await(firstDelay, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            Integer next = statuses.poll();
+            int code = next != null ? next : status;
+            if(code != 200){
+                exchange.sendResponseHeaders(code, -1);
+            }else{
+                byte[] body = ("{\"id\":" + request + "}").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream stream = exchange.getResponseBody()) {
+                    stream.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+        client = generated.create("SyntheticAPIClient");
+        call(client, "url", "http://127.0.0.1:" + server.getAddress().getPort());
+        policy = generated.create("SyntheticAPIPolicy");
+        call(policy, "setBackoff", 0L, 0L);
+        call(client, "setPolicy", policy);
+    }
+
+    @AfterEach
+    public void stop() throws IOException {
+        release.countDown();
+        if(server != null)
+            server.stop(0);
+        if(executor != null)
+            executor.shutdownNow();
+        if(generated != null)
+            generated.close();
+    }
+
+    @Test
+    public void retriesTransientFailures() throws Exception {
+        call(policy, "setMaxAttempts", 3);
+        statuses.add(503);
+        statuses.add(502);
+
+        Object schema = call(call(client, "tag0"), "getSchema0", 1L, null);
+
+        assertEquals(3L, call(schema, "getId"));
+        assertEquals(3, requests.get());
+        assertEquals(2L, call(policy, "getRetries"));
+    }
+
+    @Test
+    public void stopsRetryingWhenTheBudgetIsExhausted() throws Exception {
+        call(policy, "setMaxAttempts", 5);
+        call(policy, "setRetryBudget", 0.1, 2);
+        status = 503;
+
+        Exception first = assertThrows(Exception.class, () -> call(call(client, "tag0"), "getSchema0", 1L, null));
+        assertEquals(generated.load("SyntheticAPIException"), first.getClass());
+        assertEquals(3, requests.get());
+        assertEquals(2L, call(policy, "getRetries"));
+        assertEquals(1L, call(policy, "getRejected"));
+
+        assertThrows(Exception.class, () -> call(call(client, "tag0"), "getSchema0", 1L, null));
+        assertEquals(4, requests.get());
+        assertEquals(2L, call(policy, "getRetries"));
+        assertEquals(2L, call(policy, "getRejected"));
+    }
+
+    @Test
+    public void hedgesSlowRequests() throws Exception {
+        call(policy, "setHedge", 95.0, 50L);
+        firstDelay = 10000;
+
+        long start = System.nanoTime();
+        Object schema = call(call(client, "tag0"), "getSchema0", 1L, null);
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5), "The hedged request did not answer before the slow one");
+        assertEquals(2L, call(schema, "getId"));
+        assertEquals(2, requests.get());
+        assertEquals(1L, call(policy, "getHedges"));
+    }
+
+    @Test
+    public void waitsForTheFirstRequestWhenNoHedgeBudgetIsLeft() throws Exception {
+        call(policy, "setHedge", 95.0, 50L);
+        call(policy, "setRetryBudget", 0.0, 0);
+        firstDelay = 300;
+
+        Object schema = call(call(client, "tag0"), "getSchema0", 1L, null);
+
+        assertEquals(1L, call(schema, "getId"));
+        assertEquals(1, requests.get());
+        assertEquals(0L, call(policy, "getHedges"));
+        assertEquals(1L, call(policy, "getRejected"));
+    }
+
+}
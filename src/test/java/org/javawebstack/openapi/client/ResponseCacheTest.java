@@ -0,0 +1,99 @@
+package org.javawebstack.openapi.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.javawebstack.openapi.client.GeneratedClient.call;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCacheTest {
+
+    private final List<String> conditions = new CopyOnWriteArrayList<>();
+    private volatile String etag = "\"v1\"";
+    private volatile String name = "first";
+    private GeneratedClient generated;
+    private HttpServer server;
+    private Object client;
+
+    @BeforeEach
+    public void start() throws Exception {
+        JavaClientGenerator generator = new JavaClientGenerator(SyntheticSpec.create(1, 0, 1));
+        generator.setTransport(true);
+        generator.setCache(true);
+        generated = GeneratedClient.compile(generator);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/schema0/1", exchange -> {
+            String condition = exchange.getRequestHeaders().getFirst("If-None-Match");
+            conditions.add(String.valueOf(condition));
+            exchange.getResponseHeaders().set("ETag", etag);
+            if(etag.equals(condition)){
+                exchange.getResponseHeaders().set("Cache-Control", "max-age=60");
+                exchange.sendResponseHeaders(304, -1);
+            }else{
+                byte[] body = ("{\"id\":1,\"display_name\":\"" + name + "\"}").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream stream = exchange.getResponseBody()) {
+                    stream.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+        client = generated.create("SyntheticAPIClient");
+        call(client, "url", "http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    public void stop() throws IOException {
+        if(server != null)
+            server.stop(0);
+        if(generated != null)
+            generated.close();
+    }
+
+    @Test
+    public void revalidatesWithETagAndReusesTheCachedValue() throws Exception {
+        Object first = call(call(client, "tag0"), "getSchema0", 1L, null);
+        Object revalidated = call(call(client, "tag0"), "getSchema0", 1L, null);
+        Object fresh = call(call(client, "tag0"), "getSchema0", 1L, null);
+
+        assertEquals("first", call(first, "getDisplayName"));
+        assertSame(first, revalidated);
+        assertSame(first, fresh);
+        assertEquals(Arrays.asList("null", "\"v1\""), conditions);
+        Object cache = call(client, "getCache");
+        assertEquals(1L, call(cache, "getMisses"));
+        assertEquals(1L, call(cache, "getRevalidations"));
+        assertEquals(2L, call(cache, "getHits"));
+    }
+
+    @Test
+    public void replacesTheEntryWhenTheETagChanged() throws Exception {
+        Object first = call(call(client, "tag0"), "getSchema0", 1L, null);
+        etag = "\"v2\"";
+        name = "second";
+        Object second = call(call(client, "tag0"), "getSchema0", 1L, null);
+        Object revalidated = call(call(client, "tag0"), "getSchema0", 1L, null);
+
+        assertEquals("first", call(first, "getDisplayName"));
+        assertEquals("second", call(second, "getDisplayName"));
+        assertSame(second, revalidated);
+        assertEquals(Arrays.asList("null", "\"v1\"", "\"v2\""), conditions);
+        Object cache = call(client, "getCache");
+        assertEquals(2L, call(cache, "getMisses"));
+        assertEquals(1L, call(cache, "getRevalidations"));
+    }
+
+}
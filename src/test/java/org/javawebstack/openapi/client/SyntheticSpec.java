@@ -0,0 +1,88 @@
+package org.javawebstack.openapi.client;
+
+import org.javawebstack.openapi.parser.OpenAPI;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class SyntheticSpec {
+
+    public static OpenAPI create(int schemas, int depth, int tags) {
+        return parse(json(schemas, depth, tags));
+    }
+
+    public static OpenAPI parse(String json) {
+        try {
+            File file = File.createTempFile("synthetic-spec", ".json");
+            try {
+                Files.write(file.toPath(), json.getBytes(StandardCharsets.UTF_8));
+                return OpenAPI.fromFile(file);
+            } finally {
+                file.delete();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static String json(int schemas, int depth, int tags) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"openapi\":\"3.0.0\",\"info\":{\"title\":\"Synthetic API\",\"version\":\"1.0\"},\"tags\":[");
+        for(int i = 0; i < tags; i++){
+            if(i > 0)
+                sb.append(',');
+            sb.append("{\"name\":\"tag").append(i).append("\"}");
+        }
+        sb.append("],\"paths\":{");
+        for(int i = 0; i < schemas; i++){
+            if(i > 0)
+                sb.append(',');
+            String tag = "tag" + (i % tags);
+            sb.append("\"/schema").append(i).append("/{id}\":{\"parameters\":[{\"name\":\"id\",\"in\":\"path\",\"required\":true,\"schema\":{\"type\":\"integer\",\"format\":\"int64\"}}],")
+                    .append("\"get\":{\"operationId\":\"getSchema").append(i).append("\",\"tags\":[\"").append(tag).append("\"],")
+                    .append("\"parameters\":[{\"name\":\"page\",\"in\":\"query\",\"schema\":{\"type\":\"integer\"}}],")
+                    .append("\"responses\":{\"200\":{\"description\":\"OK\",\"content\":{\"application/json\":{\"schema\":{\"$ref\":\"#/components/schemas/Schema").append(i).append("\"}}}}}},")
+                    .append("\"put\":{\"operationId\":\"updateSchema").append(i).append("\",\"tags\":[\"").append(tag).append("\"],")
+                    .append("\"requestBody\":{\"content\":{\"application/json\":{\"schema\":{\"$ref\":\"#/components/schemas/Schema").append(i).append("\"}}}},")
+                    .append("\"responses\":{\"200\":{\"$ref\":\"#/components/responses/Response").append(i % 10).append("\"}}}}");
+        }
+        sb.append("},\"components\":{\"schemas\":{");
+        for(int i = 0; i < schemas; i++){
+            if(i > 0)
+                sb.append(',');
+            sb.append("\"Schema").append(i).append("\":");
+            object(sb, depth, i);
+        }
+        sb.append("},\"responses\":{");
+        for(int i = 0; i < 10; i++){
+            if(i > 0)
+                sb.append(',');
+            sb.append("\"Response").append(i).append("\":{\"description\":\"OK\",\"content\":{\"application/json\":{\"schema\":{\"type\":\"array\",\"items\":{\"$ref\":\"#/components/schemas/Schema").append(i % schemas).append("\"}}}}}");
+        }
+        sb.append("}}}");
+        return sb.toString();
+    }
+
+    private static void object(StringBuilder sb, int depth, int index) {
+        sb.append("{\"type\":\"object\",\"properties\":{")
+                .append("\"id\":{\"type\":\"integer\",\"format\":\"int64\"},")
+                .append("\"display_name\":{\"type\":\"string\"},")
+                .append("\"created-at\":{\"type\":\"string\"},")
+                .append("\"class\":{\"type\":\"string\"},")
+                .append("\"score\":{\"type\":\"number\"},")
+                .append("\"active\":{\"type\":\"boolean\"},")
+                .append("\"values\":{\"type\":\"array\",\"items\":{\"type\":\"integer\"}},")
+                .append("\"related\":{\"$ref\":\"#/components/schemas/Schema").append(index).append("\"},")
+                .append("\"links\":{\"type\":\"array\",\"items\":{\"type\":\"object\",\"properties\":{\"rel\":{\"type\":\"string\"},\"href\":{\"type\":\"string\"}}}}");
+        if(depth > 0){
+            sb.append(",\"children\":{\"type\":\"array\",\"items\":");
+            object(sb, depth - 1, index);
+            sb.append("},\"meta_data\":");
+            object(sb, depth - 1, index);
+        }
+        sb.append("}}");
+    }
+
+}
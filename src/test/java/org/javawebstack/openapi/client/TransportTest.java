@@ -0,0 +1,211 @@
+package org.javawebstack.openapi.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.javawebstack.openapi.client.GeneratedClient.call;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransportTest {
+
+    private final List<Object[]> sent = new CopyOnWriteArrayList<>();
+    private GeneratedClient generated;
+    private ExecutorService executor;
+    private HttpServer server;
+
+    @BeforeEach
+    public void start() throws Exception {
+        JavaClientGenerator generator = new JavaClientGenerator(SyntheticSpec.create(1, 0, 1));
+        generator.setTransport(true);
+        generated = GeneratedClient.compile(generator);
+    }
+
+    @AfterEach
+    public void stop() throws IOException {
+        if(server != null)
+            server.stop(0);
+        if(executor != null)
+            executor.shutdownNow();
+        if(generated != null)
+            generated.close();
+    }
+
+    @Test
+    public void sendsRequestsThroughACustomTransport() throws Exception {
+        Object client = generated.create("SyntheticAPIClient", recordingTransport("{\"id\":7,\"display_name\":\"seven\"}"));
+        call(client, "url", "http://api.test/");
+        call(client, "header", "X-Trace", new String[]{ "abc" });
+
+        Object schema = call(call(client, "tag0"), "getSchema0", 7L, 2);
+
+        assertEquals("seven", call(schema, "getDisplayName"));
+        assertEquals(1, sent.size());
+        assertEquals("GET", sent.get(0)[0]);
+        assertEquals("http://api.test/schema0/7?page=2", sent.get(0)[1]);
+        assertEquals(Collections.singletonList("abc"), ((Map<?, ?>) sent.get(0)[2]).get("X-Trace"));
+    }
+
+    @Test
+    public void sendsJsonBodiesThroughACustomTransport() throws Exception {
+        Object client = generated.create("SyntheticAPIClient", recordingTransport("{}"));
+        Object body = call(generated.create("schemas.Schema0"), "setDisplayName", "updated");
+
+        call(call(client, "tag0"), "updateSchema0", 7L, body);
+
+        assertEquals("PUT", sent.get(0)[0]);
+        assertEquals("/schema0/7", sent.get(0)[1]);
+        assertEquals(Collections.singletonList("application/json"), ((Map<?, ?>) sent.get(0)[2]).get("Content-Type"));
+        assertEquals("{\"display_name\":\"updated\"}", new String((byte[]) sent.get(0)[3], StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void rejectsNullPathParameters() throws Exception {
+        Object client = generated.create("SyntheticAPIClient", recordingTransport("{}"));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> call(call(client, "tag0"), "getSchema0", null, null));
+
+        assertEquals("Path parameter 'id' must not be null", exception.getMessage());
+        assertTrue(sent.isEmpty());
+    }
+
+    @Test
+    public void reportsTransportFailuresAsApiExceptions() throws Exception {
+        Object client = generated.create("SyntheticAPIClient", generated.proxy("SyntheticAPITransport", (proxy, method, args) -> {
+            throw new IOException("connection refused");
+        }));
+
+        Exception exception = assertThrows(Exception.class, () -> call(call(client, "tag0"), "getSchema0", 1L, null));
+
+        assertEquals(generated.load("SyntheticAPIException"), exception.getClass());
+    }
+
+    @Test
+    public void limitsConcurrentRequestsOfTheHttpTransport() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/schema0", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream stream = exchange.getResponseBody()) {
+                stream.write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+        Object transport = generated.create("SyntheticAPIHttpTransport", Duration.ofSeconds(5), Duration.ofSeconds(5), 2);
+        Object client = generated.create("SyntheticAPIClient", transport);
+        call(client, "url", "http://127.0.0.1:" + server.getAddress().getPort());
+
+        List<Future<Object>> calls = new ArrayList<>();
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        try {
+            for(int i = 0; i < 6; i++)
+                calls.add(callers.submit(() -> call(call(client, "tag0"), "getSchema0", 1L, null)));
+            for(Future<Object> future : calls)
+                assertEquals(1L, call(future.get(10, TimeUnit.SECONDS), "getId"));
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(2, maxInFlight.get());
+        assertEquals(2, call(transport, "getAvailablePermits"));
+    }
+
+    @Test
+    public void multiplexesRequestsOverOneHttp2Connection() throws Exception {
+        try (H2cServer h2c = new H2cServer("{\"id\":1}".getBytes(StandardCharsets.UTF_8), 100)) {
+            Object client = generated.create("SyntheticAPIClient");
+            call(client, "url", h2c.getUrl());
+            // The first request upgrades the connection, the server rejects anything that is not HTTP/2
+            assertEquals(1L, call(call(call(client, "tag0"), "getSchema0", 1L, null), "getId"));
+
+            List<Future<Object>> calls = new ArrayList<>();
+            ExecutorService callers = Executors.newFixedThreadPool(6);
+            try {
+                for(int i = 0; i < 6; i++)
+                    calls.add(callers.submit(() -> call(call(client, "tag0"), "getSchema0", 1L, null)));
+                for(Future<Object> future : calls)
+                    assertEquals(1L, call(future.get(10, TimeUnit.SECONDS), "getId"));
+            } finally {
+                callers.shutdownNow();
+            }
+
+            assertEquals(1, h2c.getConnections());
+            assertEquals(7, h2c.getStreams());
+            assertTrue(h2c.getMaxConcurrentStreams() > 1, "Requests were not multiplexed concurrently");
+        }
+    }
+
+    @Test
+    public void streamsResponseBodiesOfTheHttpTransport() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/stream", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream stream = exchange.getResponseBody()) {
+                stream.write("first,".getBytes(StandardCharsets.UTF_8));
+                stream.flush();
+                release.await(10, TimeUnit.SECONDS);
+                stream.write("second".getBytes(StandardCharsets.UTF_8));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.start();
+        Object transport = generated.create("SyntheticAPIHttpTransport", Duration.ofSeconds(5), Duration.ofSeconds(5), 1);
+
+        Object response = call(transport, "send", "GET", "http://127.0.0.1:" + server.getAddress().getPort() + "/stream", Collections.emptyMap(), null);
+        try (InputStream body = (InputStream) call(response, "getBody")) {
+            byte[] first = new byte[6];
+            Future<Integer> read = executor.submit(() -> body.read(first));
+            assertEquals(6, (int) read.get(5, TimeUnit.SECONDS));
+            assertEquals("first,", new String(first, StandardCharsets.UTF_8));
+            assertEquals(0, call(transport, "getAvailablePermits"));
+            release.countDown();
+            byte[] rest = new byte[6];
+            int offset = 0;
+            while (offset < rest.length)
+                offset += body.read(rest, offset, rest.length - offset);
+            assertEquals("second", new String(rest, StandardCharsets.UTF_8));
+        } finally {
+            release.countDown();
+        }
+        assertEquals(1, call(transport, "getAvailablePermits"));
+    }
+
+    private Object recordingTransport(String response) throws Exception {
+        return generated.proxy("SyntheticAPITransport", (proxy, method, args) -> {
+            if(!method.getName().equals("send"))
+                return method.invoke(this, args);
+            sent.add(args);
+            Map<String, List<String>> headers = Collections.singletonMap("Content-Type", Collections.singletonList("application/json"));
+            return generated.create("SyntheticAPITransport$Response", 200, headers, response.getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+}